@@ -0,0 +1,234 @@
+/**
+ * IntPureQueue is a PureQueue specialized to ints.  It stores the items in a growable circular int array, so nothing is boxed.
+ */
+
+//package packageName
+
+import java.util.NoSuchElementException;
+
+public class IntPureQueue {
+
+    /* constants */
+
+	//capacity of a freshly created queue
+	private static final int DEFAULT_CAPACITY = 8;
+
+    /* fields */
+
+	//the circular buffer
+	private int[] elements;
+
+	//index of the front of the queue in elements
+	private int head;
+
+	//number of items in the queue
+	private int size;
+
+    /* constructors */
+
+    /**
+     * Creates a new, empty IntPureQueue.
+     */
+    public IntPureQueue() {
+		this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty IntPureQueue with room for some items before it has to grow.
+     *
+     * @param capacity  The number of items this can hold without growing.
+     */
+    public IntPureQueue(int capacity) {
+		elements = new int[Math.max(1, capacity)];
+		head = 0;
+		size = 0;
+    }
+
+    /**
+     * Creates a copy of another IntPureQueue without removing anything from it.
+     *
+     * @param other  The queue to copy.
+     */
+    public IntPureQueue(IntPureQueue other) {
+		this(other.size);
+		other.copyInto(elements, 0);
+		size = other.size;
+    }
+
+    /**
+     * Creates a queue holding the given items, with the zeroeth item at the front.
+     *
+     * @param items  The items to add, in order.
+     */
+    public IntPureQueue(int[] items) {
+		this(items.length);
+		System.arraycopy(items, 0, elements, 0, items.length);
+		size = items.length;
+    }
+
+    /* public methods */
+
+    /**
+     * Returns a String version of this.
+     *
+     * @return  A String description of this.
+     */
+    public String toString() {
+		String a = "Top";
+		String b = "Bottom";
+		StringBuilder contents = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				contents.append(", ");
+			}
+			contents.append(get(i));
+		}
+		contents.append("]");
+        return b + " --->" + contents + "<---" + a + "\n" + a + " --->" + contents + "<---" + b ;
+    }
+
+	public boolean add(int item){
+		if (size == elements.length) {
+			grow();
+		}
+		elements[physicalIndex(size)] = item;
+		size++;
+		return true;
+	}
+
+	public int remove(){
+		if (size <= 0){
+			throw new NoSuchElementException("There is no such item");
+		}
+		int item = elements[head];
+		head = (head + 1 == elements.length) ? 0 : head + 1;
+		size--;
+		return item;
+	}
+
+	public int element(){
+		if (size <= 0){
+			throw new NoSuchElementException("There is no such item");
+		}
+		return elements[head];
+	}
+
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of items in this.
+	 *
+	 * @return  The number of items in the queue.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns an item without removing anything.
+	 *
+	 * @param index  The position of the item, where 0 is the front of the queue.
+	 * @return  The item index places behind the front.
+	 */
+	public int get(int index){
+		if (index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for a queue of size " + size);
+		}
+		return elements[physicalIndex(index)];
+	}
+
+	/**
+	 * Returns a copy of this.  Neither queue is drained.
+	 *
+	 * @return  A new queue with the same items in the same order.
+	 */
+	public IntPureQueue copy(){
+		return new IntPureQueue(this);
+	}
+
+	/**
+	 * Returns the items as an array, front first.
+	 *
+	 * @return  A new array with the items of this.
+	 */
+	public int[] toArray(){
+		int[] items = new int[size];
+		copyInto(items, 0);
+		return items;
+	}
+
+	public boolean equals(IntPureQueue other) {
+		if (other == null || size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (elements[physicalIndex(i)] != other.elements[other.physicalIndex(i)]) {
+				return false;
+			}
+		}
+		return true;
+    }
+
+	public boolean equals(Object obj){
+		if (!(obj instanceof IntPureQueue)) {
+			return false;
+		}
+		return equals((IntPureQueue) obj);
+	}
+
+	public int hashCode(){
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + elements[physicalIndex(i)];
+		}
+		return hash;
+	}
+
+    /* hidden methods (private/protected) (JavaDoc not necessary) */
+
+	//maps a logical index (0 is the front) to a slot in elements
+	private int physicalIndex(int index){
+		int slot = head + index;
+		return slot < elements.length ? slot : slot - elements.length;
+	}
+
+	//copies the items, front first, into destination starting at offset (at most two arraycopies)
+	private void copyInto(int[] destination, int offset){
+		int firstRun = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, destination, offset, firstRun);
+		System.arraycopy(elements, 0, destination, offset + firstRun, size - firstRun);
+	}
+
+	//doubles the buffer, unrolling it so the front is back at slot 0
+	private void grow(){
+		int[] bigger = new int[elements.length * 2];
+		copyInto(bigger, 0);
+		elements = bigger;
+		head = 0;
+	}
+
+    /* main method for testing */
+
+    /**
+     * Unit test for IntPureQueue
+
+     * @param args  Arguments used to test this class.
+     */
+    public static void main(String[] args) {
+		IntPureQueue queue = new IntPureQueue(2);
+		for (int i = 0; i < 20; i++) {
+			queue.add(i);
+			if (i % 3 == 0) {
+				queue.remove();
+			}
+		}
+		System.out.println(queue);
+		IntPureQueue copy = queue.copy();
+		System.out.println("Copy equal: " + copy.equals(queue) + ", same hash: " + (copy.hashCode() == queue.hashCode()));
+		copy.remove();
+		System.out.println("After removing from the copy: " + copy.equals(queue) + ", original size " + queue.size());
+    }
+
+} //end of IntPureQueue
@@ -1,32 +1,64 @@
 /**
- * PureQueue creates a queue using the ArrayList data structure  
+ * PureQueue creates a queue using a growable circular array, so add, remove and element all run in constant time.
  *
  * @author Zach 'TG' Thoroughgood
  */
 
 //package packageName
 
-import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
-public class PureQueue <E extends Object> {
+public class PureQueue <E extends Object> implements Iterable<E> {
 
     /* constants */
 
+	//capacity of a freshly created queue
+	private static final int DEFAULT_CAPACITY = 8;
+
     /* fields */
-	private ArrayList<E> mylist;
-    
+
+	//the circular buffer.  Slots outside of [head, head + size) are always null.
+	private Object[] elements;
+
+	//index of the front of the queue in elements
+	private int head;
+
+	//number of items in the queue
+	private int size;
+
+	//number of structural modifications, so iterators can fail fast
+	private int modCount;
+
     /* constructors */
-    
+
     /**
-     * Creates a new instance of EmptyClass.
+     * Creates a new, empty PureQueue.
      */
     public PureQueue() {
-		mylist = new ArrayList<E>(); 
+		elements = new Object[DEFAULT_CAPACITY];
+		head = 0;
+		size = 0;
     }
-    
+
+    /**
+     * Creates a copy of another PureQueue without removing anything from it.
+     *
+     * @param other  The queue to copy.
+     */
+    public PureQueue(PureQueue<? extends E> other) {
+		elements = new Object[Math.max(DEFAULT_CAPACITY, other.size)];
+		for (int i = 0; i < other.size; i++) {
+			elements[i] = other.elements[other.physicalIndex(i)];
+		}
+		head = 0;
+		size = other.size;
+    }
+
     /* public methods */
-    
+
     /**
      * Returns a String version of this.
      *
@@ -35,82 +67,185 @@ public class PureQueue <E extends Object> {
     public String toString() {
 		String a = "Top";
 		String b = "Bottom";
-        return b + " --->" + mylist + "<---" + a + "\n" + a + " --->" + mylist + "<---" + b ;   
+		StringBuilder contents = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				contents.append(", ");
+			}
+			contents.append(get(i));
+		}
+		contents.append("]");
+        return b + " --->" + contents + "<---" + a + "\n" + a + " --->" + contents + "<---" + b ;
     }
-    
-	
-	/*
-	From PureStack.java for reference
-	 
-	public void push(E item){
-		mylist.add(item);
-	}
-    
-	*/
-	
+
 	public boolean add(E item){
-		mylist.add(item);
+		if (size == elements.length) {
+			grow();
+		}
+		elements[physicalIndex(size)] = item;
+		size++;
+		modCount++;
 		return true;
 	}
-	
+
 	public E remove(){
-		int item = mylist.size();
-		if (item <= 0){
+		if (size <= 0){
 			throw new NoSuchElementException("There is no such item");
 		}
-		return mylist.remove(0);
+		E item = elementAt(head);
+		elements[head] = null;
+		head = (head + 1) % elements.length;
+		size--;
+		modCount++;
+		return item;
 	}
-	
+
 	public E element(){
-		int item = mylist.size();
-		if (item <= 0){
+		if (size <= 0){
 			throw new NoSuchElementException("There is no such item");
 		}else{
-		return mylist.get(0);
+		return elementAt(head);
 
 		}
 	}
-	
+
 	public boolean isEmpty(){
-		return mylist.isEmpty();
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of items in this.
+	 *
+	 * @return  The number of items in the queue.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns an item without removing anything.
+	 *
+	 * @param index  The position of the item, where 0 is the front of the queue.
+	 * @return  The item index places behind the front.
+	 */
+	public E get(int index){
+		if (index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for a queue of size " + size);
+		}
+		return elementAt(physicalIndex(index));
+	}
+
+	/**
+	 * Returns a copy of this.  Neither queue is drained.
+	 *
+	 * @return  A new queue with the same items in the same order.
+	 */
+	public PureQueue<E> copy(){
+		return new PureQueue<E>(this);
 	}
-	
+
+	/**
+	 * Iterates from the front of the queue to the back, without removing anything.
+	 *
+	 * @return  An iterator over the items in this.
+	 */
+	public Iterator<E> iterator(){
+		return new Iterator<E>() {
+			private int index = 0;
+			private final int expectedModCount = modCount;
+
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			public E next() {
+				if (expectedModCount != modCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (index >= size) {
+					throw new NoSuchElementException("There is no such item");
+				}
+				return elementAt(physicalIndex(index++));
+			}
+		};
+	}
+
 	public boolean equals(PureQueue<E> other) {
-        return mylist.equals(other.mylist);
+		return sameElements(other);
     }
-    /*
-	public boolean equals(PureQueue<E> item){
-		if(mylist.size() != item.size()){
+
+	public boolean equals(Object obj){
+		if (!(obj instanceof PureQueue)) {
 			return false;
-		}else if(item == null && mylist == null){
-			return true;
 		}
-		return mylist.equals(item);
+		return sameElements((PureQueue<?>) obj);
 	}
-	*/
-	
-	public boolean equals(Object obj){
-		PureQueue<E> other = (PureQueue<E>) obj;
-		try{ 
-			return mylist.equals(other.mylist);
-		} catch (ClassCastException e){
-			return false;
+
+	public int hashCode(){
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			Object item = elements[physicalIndex(i)];
+			hash = 31 * hash + (item == null ? 0 : item.hashCode());
 		}
+		return hash;
 	}
-	
-	
-	
+
     /* hidden methods (private/protected) (JavaDoc not necessary) */
-    
+
+	//whether other holds equal elements in the same order
+	private boolean sameElements(PureQueue<?> other){
+		if (other == null || size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!Objects.equals(elements[physicalIndex(i)], other.elements[other.physicalIndex(i)])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//maps a logical index (0 is the front) to a slot in elements
+	private int physicalIndex(int index){
+		int slot = head + index;
+		return slot < elements.length ? slot : slot - elements.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int slot){
+		return (E) elements[slot];
+	}
+
+	//doubles the buffer, unrolling it so the front is back at slot 0
+	private void grow(){
+		Object[] bigger = new Object[elements.length * 2];
+		for (int i = 0; i < size; i++) {
+			bigger[i] = elements[physicalIndex(i)];
+		}
+		elements = bigger;
+		head = 0;
+	}
+
     /* main method for testing */
-    
-    /** 
-     * Unit test for EmptyClass
-     
+
+    /**
+     * Unit test for PureQueue
+
      * @param args  Arguments used to test this class.
      */
     public static void main(String[] args) {
-    
+		PureQueue<Integer> queue = new PureQueue<Integer>();
+		for (int i = 0; i < 20; i++) {
+			queue.add(i);
+			if (i % 3 == 0) {
+				queue.remove();
+			}
+		}
+		System.out.println(queue);
+		PureQueue<Integer> copy = queue.copy();
+		System.out.println("Copy equal: " + copy.equals(queue) + ", same hash: " + (copy.hashCode() == queue.hashCode()));
+		copy.remove();
+		System.out.println("After removing from the copy: " + copy.equals(queue) + ", original size " + queue.size());
     }
 
-} //end of EmptyClass
\ No newline at end of file
+} //end of PureQueue
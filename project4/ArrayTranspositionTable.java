@@ -0,0 +1,129 @@
+/**
+ * A TranspositionTable in a pair of fixed-size arrays.  Each position has exactly one slot, chosen by its hash, and a new
+ * position always replaces whatever was in its slot.  Not thread safe.
+ */
+
+public class ArrayTranspositionTable implements TranspositionTable {
+
+    //instance variables
+
+    //positions stored in each slot (null when empty)
+    private CombinatorialGame[] keys;
+
+    //value stored in each slot
+    private long[] values;
+
+    //32 - log2(capacity), to turn a hash into a slot
+    private int indexShift;
+
+    //statistics
+    private long probes;
+    private long hits;
+    private long overwrites;
+
+    /**
+     * Class constructor.
+     *
+     * @param capacity  The number of entries.  Rounded up to a power of two.
+     */
+    public ArrayTranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, not " + capacity);
+        }
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.keys = new CombinatorialGame[1 << bits];
+        this.values = new long[1 << bits];
+        this.indexShift = 32 - bits;
+    }
+
+    //public methods
+
+    //@override
+    public long get(CombinatorialGame position) {
+        this.probes++;
+        int slot = this.slotOf(position);
+        CombinatorialGame key = this.keys[slot];
+        if (key != null && (key == position || key.equals(position))) {
+            this.hits++;
+            return this.values[slot];
+        }
+        return MISSING;
+    }
+
+    //@override
+    public void put(CombinatorialGame position, long value) {
+        int slot = this.slotOf(position);
+        CombinatorialGame key = this.keys[slot];
+        if (key != null && key != position && !key.equals(position)) {
+            this.overwrites++;
+        }
+        this.keys[slot] = position;
+        this.values[slot] = value;
+    }
+
+    //@override
+    public long merge(CombinatorialGame position, long bits) {
+        int slot = this.slotOf(position);
+        CombinatorialGame key = this.keys[slot];
+        if (key != null && (key == position || key.equals(position))) {
+            this.values[slot] |= bits;
+        } else {
+            if (key != null) {
+                this.overwrites++;
+            }
+            this.keys[slot] = position;
+            this.values[slot] = bits;
+        }
+        return this.values[slot];
+    }
+
+    //@override
+    public void clear() {
+        java.util.Arrays.fill(this.keys, null);
+        this.probes = 0;
+        this.hits = 0;
+        this.overwrites = 0;
+    }
+
+    //@override
+    public int getCapacity() {
+        return this.keys.length;
+    }
+
+    //@override
+    public long getProbes() {
+        return this.probes;
+    }
+
+    //@override
+    public long getHits() {
+        return this.hits;
+    }
+
+    //@override
+    public long getOverwrites() {
+        return this.overwrites;
+    }
+
+    //@override
+    public double getHitRate() {
+        return (this.probes == 0) ? 0.0 : ((double) this.hits) / this.probes;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        return "A transposition table with " + this.getCapacity() + " slots: " + this.probes + " probes, " + this.hits + " hits, " + this.overwrites + " overwrites.";
+    }
+
+    /* Private methods */
+
+    //Fibonacci hashing: the top bits of hash * 2^32/phi
+    private int slotOf(CombinatorialGame position) {
+        return (position.hashCode() * 0x9E3779B9) >>> this.indexShift;
+    }
+
+} //end of ArrayTranspositionTable
@@ -0,0 +1,271 @@
+/**
+ * Finds the outcome classes of large numbers of positions from a PositionFactory, and counts them in a histogram, without
+ * playing any games.
+ *
+ * Positions are drawn from the factory in fixed size chunks, on the calling thread, so exactly the requested number are
+ * drawn in the same order however many threads there are; a seeded factory gives the same histogram every time.  Each
+ * chunk is then split into slices, solved on a parallel stream.  Each slice has its own OutcomeSolver, but they all share
+ * one thread safe TranspositionTable, so a position solved by one thread is a table hit for the others.  Each position is
+ * counted as soon as it is solved, under a row key and a column key (such as the number of piles and the largest pile),
+ * and then dropped, so memory depends on the chunk size and the number of histogram cells rather than the number of
+ * positions.  evaluate can be called repeatedly to keep adding to the same histogram.
+ */
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+public class BatchEvaluator<G extends CombinatorialGame> {
+
+    //instance variables
+
+    //where the positions come from
+    private final PositionFactory<G> factory;
+
+    //results shared by every thread's solver
+    private final TranspositionTable table;
+
+    //names and functions of the histogram keys
+    private final String rowName;
+    private final ToIntFunction<? super G> rowKey;
+    private final String columnName;
+    private final ToIntFunction<? super G> columnKey;
+
+    //counts of each outcome class, by row and column (row in the high 32 bits)
+    private final ConcurrentHashMap<Long, LongAdder[]> histogram = new ConcurrentHashMap<Long, LongAdder[]>();
+
+    //number of positions evaluated, and the nanoseconds evaluate has run
+    private final LongAdder numEvaluated = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+
+    //constants
+
+    //default number of table entries
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+
+    //number of outcome classes
+    private static final int NUM_OUTCOMES = 4;
+
+    //number of positions drawn from the factory at a time
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Class constructor.  Uses a new ConcurrentTranspositionTable.
+     *
+     * @param factory  Where the positions come from.
+     * @param rowName  The name of the row key, for the CSV header.
+     * @param rowKey  Chooses the histogram row of a position.
+     * @param columnName  The name of the column key, for the CSV header.
+     * @param columnKey  Chooses the histogram column of a position.
+     */
+    public BatchEvaluator(PositionFactory<G> factory, String rowName, ToIntFunction<? super G> rowKey, String columnName, ToIntFunction<? super G> columnKey) {
+        this(factory, rowName, rowKey, columnName, columnKey, new ConcurrentTranspositionTable(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param factory  Where the positions come from.
+     * @param rowName  The name of the row key, for the CSV header.
+     * @param rowKey  Chooses the histogram row of a position.
+     * @param columnName  The name of the column key, for the CSV header.
+     * @param columnKey  Chooses the histogram column of a position.
+     * @param table  The table shared by the solvers.  Must be thread safe.
+     */
+    public BatchEvaluator(PositionFactory<G> factory, String rowName, ToIntFunction<? super G> rowKey, String columnName, ToIntFunction<? super G> columnKey, TranspositionTable table) {
+        this.factory = factory;
+        this.rowName = rowName;
+        this.rowKey = rowKey;
+        this.columnName = columnName;
+        this.columnKey = columnKey;
+        this.table = table;
+    }
+
+    //public methods
+
+    /**
+     * Creates an evaluator for Rotisserie Nim that counts positions by their number of piles and their largest pile.
+     *
+     * @param factory  Where the positions come from.
+     * @return  A new evaluator.
+     */
+    public static BatchEvaluator<RotisserieNim> byPilesAndLargestPile(PositionFactory<RotisserieNim> factory) {
+        return new BatchEvaluator<RotisserieNim>(factory, "piles", RotisserieNim::getNumPiles, "largest_pile", BatchEvaluator::largestPile);
+    }
+
+    /**
+     * Solves the next positions from the factory and adds them to the histogram.
+     *
+     * @param count  The number of positions to evaluate.
+     */
+    public void evaluate(long count) {
+        long start = System.nanoTime();
+        List<G> chunk = new ArrayList<G>((int) Math.min(count, CHUNK_SIZE));
+        for (long remaining = count; remaining > 0; remaining -= chunk.size()) {
+            chunk.clear();
+            while (chunk.size() < Math.min(remaining, CHUNK_SIZE)) {
+                chunk.add(this.factory.getPosition());
+            }
+            this.countChunk(chunk);
+        }
+        this.evaluationNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Gets the number of positions evaluated.
+     *
+     * @return  The number of positions in the histogram.
+     */
+    public long getNumEvaluated() {
+        return this.numEvaluated.sum();
+    }
+
+    /**
+     * Gets the evaluation speed.
+     *
+     * @return  Positions evaluated per second of calls to evaluate.
+     */
+    public double getPositionsPerSecond() {
+        long nanos = this.evaluationNanos.sum();
+        return (nanos == 0) ? 0 : this.getNumEvaluated() * 1e9 / nanos;
+    }
+
+    /**
+     * Gets one cell of the histogram.
+     *
+     * @param row  The row key.
+     * @param column  The column key.
+     * @return  The number of positions in the cell with each outcome class, indexed by OutcomeSolver.LEFT_WINS,
+     *          RIGHT_WINS, NEXT_PLAYER_WINS and PREVIOUS_PLAYER_WINS.
+     */
+    public long[] getCounts(int row, int column) {
+        long[] counts = new long[NUM_OUTCOMES];
+        LongAdder[] cell = this.histogram.get(cellKey(row, column));
+        if (cell != null) {
+            for (int outcome = 0; outcome < NUM_OUTCOMES; outcome++) {
+                counts[outcome] = cell[outcome].sum();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the shared table, for its statistics.
+     *
+     * @return  The table the solvers share.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Writes the histogram as CSV, one line per non-empty cell, sorted by row and then column.  Each line has the keys,
+     * the number of positions, the count of each outcome class, and the fraction the player moving first wins
+     * (N positions, plus L or R positions when that player is the one moving first, counted as half).
+     *
+     * @param out  Where to write.
+     * @throws IOException  If out can't be written.
+     */
+    public void writeCsv(Writer out) throws IOException {
+        out.write(this.rowName + "," + this.columnName + ",positions,L,R,N,P,first_player_win_share\n");
+        List<Long> keys = new ArrayList<Long>(this.histogram.keySet());
+        Collections.sort(keys);
+        for (long key : keys) {
+            int row = (int) (key >> 32);
+            int column = (int) key;
+            long[] counts = this.getCounts(row, column);
+            long total = counts[0] + counts[1] + counts[2] + counts[3];
+            double firstPlayerWins = counts[OutcomeSolver.NEXT_PLAYER_WINS] + 0.5 * (counts[OutcomeSolver.LEFT_WINS] + counts[OutcomeSolver.RIGHT_WINS]);
+            out.write(row + "," + column + "," + total + "," + counts[0] + "," + counts[1] + "," + counts[2] + "," + counts[3] + "," + String.format(Locale.ROOT, "%.4f", firstPlayerWins / total) + "\n");
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the histogram to a CSV file, replacing anything already there.
+     *
+     * @param file  The file to write.
+     * @throws IOException  If the file can't be written.
+     */
+    public void writeCsv(Path file) throws IOException {
+        Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        try {
+            this.writeCsv(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Unit test for BatchEvaluator.  Evaluates random Rotisserie Nim positions and prints the histogram as CSV, or writes
+     * it to a file.
+     *
+     * @param args  Optional number of positions and CSV file name.
+     */
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 200000;
+        BatchEvaluator<RotisserieNim> evaluator = BatchEvaluator.byPilesAndLargestPile(new RotisserieNim.RotisserieFactory(6, 8, 42));
+        evaluator.evaluate(count / 2);
+        evaluator.evaluate(count - count / 2);
+        System.err.println(String.format("Evaluated %,d positions at %,.0f per second.  %s", evaluator.getNumEvaluated(), evaluator.getPositionsPerSecond(), evaluator.getTable()));
+        if (args.length > 1) {
+            evaluator.writeCsv(Paths.get(args[1]));
+        } else {
+            evaluator.writeCsv(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+    }
+
+    /* Private methods */
+
+    //solves and counts a chunk of positions in parallel slices, each with a new solver sharing the table
+    private void countChunk(final List<G> chunk) {
+        final int numSlices = Math.min(chunk.size(), ForkJoinPool.getCommonPoolParallelism());
+        IntStream.range(0, numSlices).parallel().forEach(slice -> {
+            OutcomeSolver solver = new OutcomeSolver(this.table);
+            int end = (int) ((long) chunk.size() * (slice + 1) / numSlices);
+            for (int i = (int) ((long) chunk.size() * slice / numSlices); i < end; i++) {
+                this.count(solver, chunk.get(i));
+            }
+        });
+    }
+
+    //solves a position and counts it
+    private void count(OutcomeSolver solver, G position) {
+        int outcome = solver.getOutcomeClass(position);
+        long key = cellKey(this.rowKey.applyAsInt(position), this.columnKey.applyAsInt(position));
+        LongAdder[] cell = this.histogram.get(key);
+        if (cell == null) {
+            cell = this.histogram.computeIfAbsent(key, k -> newCell());
+        }
+        cell[outcome].increment();
+        this.numEvaluated.increment();
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static LongAdder[] newCell() {
+        LongAdder[] cell = new LongAdder[NUM_OUTCOMES];
+        for (int outcome = 0; outcome < NUM_OUTCOMES; outcome++) {
+            cell[outcome] = new LongAdder();
+        }
+        return cell;
+    }
+
+    //the size of the biggest pile, or 0 for no piles
+    private static int largestPile(RotisserieNim position) {
+        int largest = 0;
+        for (int pileSize : position.getPileSizes()) {
+            largest = Math.max(largest, pileSize);
+        }
+        return largest;
+    }
+
+} //end of BatchEvaluator
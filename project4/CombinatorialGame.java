@@ -9,6 +9,9 @@
 import java.lang.*;
 import java.io.*;
 import java.util.*;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class CombinatorialGame {
 
@@ -50,6 +53,73 @@ public abstract class CombinatorialGame {
      */
     public abstract Collection<CombinatorialGame> getOptions(int player);
     
+    /**
+     * Iterates over the move options for one of the players.  Callers that may stop before the last option, such as
+     * searches that cut off once they find a winning move, should use this instead of getOptions.  By default this
+     * iterates over getOptions, so every option is built up front; subclasses can override it to build each option only
+     * when it is reached.
+     *
+     * @param player    The player to get the options for.
+     * @return          An iterator over the same options getOptions returns, in the same order.
+     */
+    public Iterator<CombinatorialGame> getOptionIterator(int player) {
+        return this.getOptions(player).iterator();
+    }
+    
+    /**
+     * Streams the move options for one of the players.  Options are built as the stream pulls them from
+     * getOptionIterator, so short-circuiting operations like findFirst and anyMatch build only what they look at.
+     *
+     * @param player    The player to get the options for.
+     * @return          A sequential, ordered stream of the options.
+     */
+    public Stream<CombinatorialGame> getOptionStream(int player) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.getOptionIterator(player), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Chooses one of the options uniformly at random.  The Referee's random fallback, random players and random playouts
+     * all go through this, so subclasses should override it to build only the chosen option when they can.  By default it
+     * walks getOptionIterator once, keeping each option with the right probability, so no collection of options is built.
+     *
+     * @param player    The player to get an option for.
+     * @param random    The source of randomness.
+     * @return          A random option for player.
+     * @throws NoSuchElementException  If player has no options.
+     */
+    public CombinatorialGame randomOption(int player, RandomGenerator random) {
+        CombinatorialGame chosen = null;
+        int numSeen = 0;
+        for (Iterator<CombinatorialGame> options = this.getOptionIterator(player); options.hasNext(); ) {
+            CombinatorialGame option = options.next();
+            numSeen++;
+            if (random.nextInt(numSeen) == 0) {
+                chosen = option;
+            }
+        }
+        if (chosen == null) {
+            throw new NoSuchElementException("No moves of " + this + " exist for " + this.getPlayerName(player) + ".");
+        }
+        return chosen;
+    }
+    
+    /**
+     * Plays random moves from this, each chosen like randomOption, until the player to move has no options.  Monte Carlo
+     * search runs this for every playout, so subclasses with a cheaper way to play a whole game should override it.
+     *
+     * @param playerToMove  The player who moves first.
+     * @param random        The source of randomness.
+     * @return              The winner: the player who made the last move.
+     */
+    public int randomPlayout(int playerToMove, RandomGenerator random) {
+        CombinatorialGame position = this;
+        while (position.playerHasAnOption(playerToMove)) {
+            position = position.randomOption(playerToMove, random);
+            playerToMove = otherPlayer(playerToMove);
+        }
+        return otherPlayer(playerToMove);
+    }
+    
     /**
      * Returns a deep clone of this.
      *
@@ -78,31 +148,52 @@ public abstract class CombinatorialGame {
     /**
      * Returns a hash code of this.
      *
-     * @return  A hash code for this position, based on the results of the toString method.
+     * @return  A hash code for this position, given by structuralHashCode.
      */
     public int hashCode() {
+        return this.structuralHashCode();
+    }
+    
+    /**
+     * Returns a hash code computed from the structure of this position.  Must agree with equals(CombinatorialGame): equal
+     * positions have equal structural hash codes.  hashCode, Collection.contains in hasOption and any table keyed on
+     * positions all go through this, so subclasses should override it to hash their fields directly (or return a cached
+     * value) rather than building a String.
+     *
+     * @return  A hash code for this position.  By default, based on the results of the toString method.
+     */
+    public int structuralHashCode() {
         return this.toString().hashCode();
     }
     
     /**
-     * Determines whether a position is an option of this.
+     * Determines whether a position is an option of this.  The Referee checks every move with this, so subclasses should
+     * override it with a direct check of the rules when they can.  By default, it walks getOptionIterator until it finds
+     * option.
      *
      * @param player    The player who can move to the option.
      * @param option	 A potential option.
      * @return 		 Whether option is a move option of this for player.
      */
     public boolean hasOption(int player, CombinatorialGame option) {
-        return this.getOptions(player).contains(option);
+        for (Iterator<CombinatorialGame> options = this.getOptionIterator(player); options.hasNext(); ) {
+            if (options.next().equals(option)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
-     * Determines whether the given player can still make moves.
+     * Determines whether the given player can still make moves.  The Referee checks this before every turn, so
+     * subclasses should override it with a direct check of the rules when they can.  By default, it asks
+     * getOptionIterator for a first option.
      *
      * @param player	int representing the player identity.
      * @return		Whether the given player has an available move on the board.
      */
     public boolean playerHasAnOption(int player) {
-        return !(this.getOptions(player).isEmpty());
+        return this.getOptionIterator(player).hasNext();
     }
     
     /**
@@ -0,0 +1,143 @@
+/**
+ * A lock-free TranspositionTable that many threads can share.  Like ArrayTranspositionTable, each position has exactly one
+ * slot, chosen by its hash, and a new position always replaces whatever was in its slot.  Each slot holds an immutable
+ * entry that is swapped in atomically, so a reader never sees a key paired with another position's value.
+ */
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentTranspositionTable implements TranspositionTable {
+
+    //instance variables
+
+    //one entry (or null) per slot
+    private AtomicReferenceArray<Entry> entries;
+
+    //32 - log2(capacity), to turn a hash into a slot
+    private int indexShift;
+
+    //statistics
+    private LongAdder probes = new LongAdder();
+    private LongAdder hits = new LongAdder();
+    private LongAdder overwrites = new LongAdder();
+
+    //a position and its value.  Never modified once it's in the table.
+    private static final class Entry {
+        private final CombinatorialGame key;
+        private final long value;
+
+        private Entry(CombinatorialGame key, long value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private boolean isFor(CombinatorialGame position) {
+            return this.key == position || this.key.equals(position);
+        }
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param capacity  The number of entries.  Rounded up to a power of two.
+     */
+    public ConcurrentTranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30, not " + capacity);
+        }
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+        this.entries = new AtomicReferenceArray<Entry>(1 << bits);
+        this.indexShift = 32 - bits;
+    }
+
+    //public methods
+
+    //@override
+    public long get(CombinatorialGame position) {
+        this.probes.increment();
+        Entry entry = this.entries.get(this.slotOf(position));
+        if (entry != null && entry.isFor(position)) {
+            this.hits.increment();
+            return entry.value;
+        }
+        return MISSING;
+    }
+
+    //@override
+    public void put(CombinatorialGame position, long value) {
+        Entry old = this.entries.getAndSet(this.slotOf(position), new Entry(position, value));
+        if (old != null && !old.isFor(position)) {
+            this.overwrites.increment();
+        }
+    }
+
+    //@override
+    public long merge(CombinatorialGame position, long bits) {
+        int slot = this.slotOf(position);
+        while (true) {
+            Entry old = this.entries.get(slot);
+            boolean sameKey = old != null && old.isFor(position);
+            Entry merged = new Entry(position, sameKey ? (old.value | bits) : bits);
+            if (this.entries.compareAndSet(slot, old, merged)) {
+                if (old != null && !sameKey) {
+                    this.overwrites.increment();
+                }
+                return merged.value;
+            }
+        }
+    }
+
+    //@override
+    public void clear() {
+        for (int i = 0; i < this.entries.length(); i++) {
+            this.entries.set(i, null);
+        }
+        this.probes.reset();
+        this.hits.reset();
+        this.overwrites.reset();
+    }
+
+    //@override
+    public int getCapacity() {
+        return this.entries.length();
+    }
+
+    //@override
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    //@override
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    //@override
+    public long getOverwrites() {
+        return this.overwrites.sum();
+    }
+
+    //@override
+    public double getHitRate() {
+        long probes = this.getProbes();
+        return (probes == 0) ? 0.0 : ((double) this.getHits()) / probes;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        return "A concurrent transposition table with " + this.getCapacity() + " slots: " + this.getProbes() + " probes, " + this.getHits() + " hits, " + this.getOverwrites() + " overwrites.";
+    }
+
+    /* Private methods */
+
+    //Fibonacci hashing: the top bits of hash * 2^32/phi
+    private int slotOf(CombinatorialGame position) {
+        return (position.hashCode() * 0x9E3779B9) >>> this.indexShift;
+    }
+
+} //end of ConcurrentTranspositionTable
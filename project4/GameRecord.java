@@ -0,0 +1,326 @@
+/**
+ * A complete game, as stored by GameRecordWriter and read back by GameRecordReader.
+ *
+ * A record file starts with the four bytes "CGGR" and an int version, then holds one record per game.  Each record is a
+ * varint length, then:
+ *     a flags byte: bit 0 is the starting player, bit 1 the winner, bit 2 set if the loser forfeited,
+ *     each player's name as a varint length and UTF-8 bytes, Left first,
+ *     the starting position as a varint length and the PositionCodec's bytes,
+ *     a varint number of moves, then each move as a varint option index.
+ * Varints are unsigned base-128, low bits first.  The leading length lets a reader skip a record without decoding it.
+ *
+ * The starting position is only decoded when asked for, so scanning records by player, winner or length is cheap.
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+public class GameRecord<Game extends CombinatorialGame> {
+
+    //instance variables
+
+    //converts the starting position and moves
+    private final PositionCodec<Game> codec;
+
+    //index of the player who moved first
+    private final int startingPlayer;
+
+    //index of the player who won
+    private final int winner;
+
+    //whether the loser forfeited
+    private final boolean byForfeit;
+
+    //players' names, Left first
+    private final String[] playerNames;
+
+    //the starting position, encoded by codec
+    private final byte[] encodedPosition;
+
+    //the option index of each move, in order
+    private final int[] moves;
+
+    //players' names in UTF-8, built when this is first written
+    private byte[][] encodedNames;
+
+    //constants
+
+    /**
+     * The first four bytes of a record file.
+     */
+    public static final int MAGIC = 0x43474752;
+
+    /**
+     * The version of the format written after MAGIC.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the first record in a file.
+     */
+    public static final int HEADER_LENGTH = 8;
+
+    //flag bits
+    private static final int WINNER_BIT = 2;
+    private static final int FORFEIT_BIT = 4;
+
+    //constructors
+
+    /**
+     * Class constructor.
+     *
+     * @param codec  The codec that encoded the position and the moves.
+     * @param startingPlayer  The index of the player who moved first.
+     * @param playerNames  The names of Left and Right.
+     * @param encodedPosition  The starting position, encoded by codec.
+     * @param moves  The option index of each move, in order.
+     * @param winner  The index of the player who won.
+     * @param byForfeit  Whether the loser forfeited.
+     */
+    public GameRecord(PositionCodec<Game> codec, int startingPlayer, String[] playerNames, byte[] encodedPosition, int[] moves, int winner, boolean byForfeit) {
+        this.codec = codec;
+        this.startingPlayer = startingPlayer;
+        this.playerNames = playerNames.clone();
+        this.encodedPosition = encodedPosition;
+        this.moves = moves;
+        this.winner = winner;
+        this.byForfeit = byForfeit;
+    }
+
+    //public methods
+
+    /**
+     * Gets the index of the player who moved first.
+     *
+     * @return  CombinatorialGame.LEFT or CombinatorialGame.RIGHT.
+     */
+    public int getStartingPlayer() {
+        return this.startingPlayer;
+    }
+
+    /**
+     * Gets the index of the player who won.
+     *
+     * @return  CombinatorialGame.LEFT or CombinatorialGame.RIGHT.
+     */
+    public int getWinner() {
+        return this.winner;
+    }
+
+    /**
+     * Determines whether the game ended in a forfeit.
+     *
+     * @return  Whether the loser forfeited, rather than running out of options.
+     */
+    public boolean isForfeit() {
+        return this.byForfeit;
+    }
+
+    /**
+     * Gets a player's name.
+     *
+     * @param playerId  The index of the player.
+     * @return  The player's toString() when the game was played.
+     */
+    public String getPlayerName(int playerId) {
+        return this.playerNames[playerId];
+    }
+
+    /**
+     * Gets the number of moves made.
+     *
+     * @return  The number of legal moves in the game.
+     */
+    public int getNumMoves() {
+        return this.moves.length;
+    }
+
+    /**
+     * Gets one move.
+     *
+     * @param ply  The index of the move, where 0 is the first.
+     * @return  The option index of the move.
+     */
+    public int getMove(int ply) {
+        return this.moves[ply];
+    }
+
+    /**
+     * Decodes the starting position.
+     *
+     * @return  The position the game started from.
+     */
+    public Game getStartingPosition() {
+        return this.codec.decode(this.encodedPosition);
+    }
+
+    /**
+     * Replays the game.
+     *
+     * @return  Every position of the game, starting position first.
+     */
+    public List<Game> getPositions() {
+        List<Game> positions = new ArrayList<Game>(this.moves.length + 1);
+        Game position = this.getStartingPosition();
+        positions.add(position);
+        int playerId = this.startingPlayer;
+        for (int move : this.moves) {
+            position = this.codec.decodeMove(position, playerId, move);
+            positions.add(position);
+            playerId = 1 - playerId;
+        }
+        return positions;
+    }
+
+    /**
+     * Replays the game to the end.
+     *
+     * @return  The last position of the game.
+     */
+    public Game getFinalPosition() {
+        List<Game> positions = this.getPositions();
+        return positions.get(positions.size() - 1);
+    }
+
+    /**
+     * Returns a String version of this.
+     *
+     * @return  A short description of the game.
+     */
+    public String toString() {
+        return "A game between " + this.playerNames[0] + " and " + this.playerNames[1] + ": " + this.moves.length + " moves, won by " + this.playerNames[this.winner] + (this.byForfeit ? " by forfeit." : ".");
+    }
+
+    /**
+     * Unit test for GameRecord, GameRecordWriter and GameRecordReader.  Records a gauntlet, then reads it back and
+     * replays every game.
+     */
+    public static void main(String[] args) throws Exception {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        Path file = Files.createTempFile("gauntlet", ".cggr");
+        PositionCodec<RotisserieNim> codec = RotisserieCodec.getInstance();
+        Referee<RotisserieNim> referee = new Referee<RotisserieNim>(new RandomPlayer<RotisserieNim>(), new RandomPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(10, 12));
+        GameRecordWriter<RotisserieNim> writer = new GameRecordWriter<RotisserieNim>(file, codec);
+        referee.addMatchListener(writer);
+        long start = System.nanoTime();
+        double[] results = referee.gauntlet(numGames);
+        writer.close();
+        long writeTime = System.nanoTime() - start;
+        System.out.println("Wrote " + writer.getNumRecords() + " games in " + (writeTime / 1000000) + " ms: " + Files.size(file) + " bytes (" + (Files.size(file) / numGames) + " per game).");
+
+        start = System.nanoTime();
+        int[] gamesWon = new int[2];
+        int numReplayed = 0;
+        boolean allEndedProperly = true;
+        GameRecordReader<RotisserieNim> reader = new GameRecordReader<RotisserieNim>(file, codec);
+        try {
+            while (reader.hasNext()) {
+                GameRecord<RotisserieNim> record = reader.next();
+                gamesWon[record.getWinner()]++;
+                allEndedProperly &= record.isForfeit() || !record.getFinalPosition().playerHasAnOption(1 - record.getWinner());
+                numReplayed++;
+            }
+        } finally {
+            reader.close();
+        }
+        System.out.println("Replayed " + numReplayed + " games in " + ((System.nanoTime() - start) / 1000000) + " ms.  Wins match: " + (gamesWon[0] == Math.round(results[0] * numGames)) + "; every game ended with no options for the loser: " + allEndedProperly);
+        Files.delete(file);
+    }
+
+    /* Package-private methods, for the reader and writer */
+
+    //number of bytes writeTo will write
+    int encodedLength() {
+        int length = this.bodyLength();
+        return varintLength(length) + length;
+    }
+
+    //writes this, including its length
+    void writeTo(ByteBuffer destination) {
+        writeVarint(this.bodyLength(), destination);
+        destination.put((byte) (this.startingPlayer | (this.winner * WINNER_BIT) | (this.byForfeit ? FORFEIT_BIT : 0)));
+        for (byte[] name : this.getEncodedNames()) {
+            writeVarint(name.length, destination);
+            destination.put(name);
+        }
+        writeVarint(this.encodedPosition.length, destination);
+        destination.put(this.encodedPosition);
+        writeVarint(this.moves.length, destination);
+        for (int move : this.moves) {
+            writeVarint(move, destination);
+        }
+    }
+
+    //reads a record's body (everything after its length)
+    static <Game extends CombinatorialGame> GameRecord<Game> readFrom(ByteBuffer body, PositionCodec<Game> codec) {
+        int flags = body.get();
+        String[] names = new String[2];
+        for (int i = 0; i < 2; i++) {
+            byte[] name = new byte[readVarint(body)];
+            body.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        byte[] encodedPosition = new byte[readVarint(body)];
+        body.get(encodedPosition);
+        int[] moves = new int[readVarint(body)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = readVarint(body);
+        }
+        return new GameRecord<Game>(codec, flags & 1, names, encodedPosition, moves, (flags & WINNER_BIT) / WINNER_BIT, (flags & FORFEIT_BIT) != 0);
+    }
+
+    /* Private methods */
+
+    //number of bytes in a record after its length
+    private int bodyLength() {
+        int length = 1;
+        for (byte[] name : this.getEncodedNames()) {
+            length += varintLength(name.length) + name.length;
+        }
+        length += varintLength(this.encodedPosition.length) + this.encodedPosition.length;
+        length += varintLength(this.moves.length);
+        for (int move : this.moves) {
+            length += varintLength(move);
+        }
+        return length;
+    }
+
+    private byte[][] getEncodedNames() {
+        if (this.encodedNames == null) {
+            this.encodedNames = new byte[][] {this.playerNames[0].getBytes(StandardCharsets.UTF_8), this.playerNames[1].getBytes(StandardCharsets.UTF_8)};
+        }
+        return this.encodedNames;
+    }
+
+    //varints, here for every encoding in the project that uses them (RotisserieCodec's byte form too)
+
+    //number of bytes in the varint form of a non-negative int
+    static int varintLength(int value) {
+        return (value == 0) ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+
+    //writes a non-negative int as a varint
+    static void writeVarint(int value, ByteBuffer destination) {
+        while ((value & ~0x7F) != 0) {
+            destination.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        destination.put((byte) value);
+    }
+
+    //reads a varint
+    static int readVarint(ByteBuffer source) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = source.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+} //end of GameRecord<Game extends CombinatorialGame>
@@ -0,0 +1,159 @@
+/**
+ * Reads the games in a record file written by GameRecordWriter, one at a time, so files with millions of games can be
+ * scanned without loading them.
+ *
+ * The file is read through a buffer that only grows if a single record doesn't fit in it.
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+public class GameRecordReader<Game extends CombinatorialGame> implements Iterator<GameRecord<Game>>, Closeable {
+
+    //instance variables
+
+    //converts positions and moves
+    private final PositionCodec<Game> codec;
+
+    //the record file
+    private final FileChannel channel;
+
+    //bytes read from the file but not yet decoded.  Always ready to be read from.
+    private ByteBuffer buffer;
+
+    //constants
+
+    //default size of the buffer
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    //most bytes in a varint
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    //constructors
+
+    /**
+     * Class constructor.
+     *
+     * @param file  The record file.
+     * @param codec  The codec the file's games were written with.
+     * @throws IOException  If the file can't be read, or isn't a record file.
+     */
+    public GameRecordReader(Path file, PositionCodec<Game> codec) throws IOException {
+        this.codec = codec;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        this.buffer.limit(0);
+        try {
+            if (!this.fill(GameRecord.HEADER_LENGTH) || this.buffer.getInt() != GameRecord.MAGIC) {
+                throw new IOException(file + " is not a game record file.");
+            }
+            int version = this.buffer.getInt();
+            if (version != GameRecord.VERSION) {
+                throw new IOException(file + " has records of version " + version + ", but only version " + GameRecord.VERSION + " can be read.");
+            }
+        } catch (IOException ioe) {
+            this.channel.close();
+            throw ioe;
+        }
+    }
+
+    //public methods
+
+    /**
+     * Determines whether there are more records.
+     *
+     * @return  Whether next will return another record.
+     * @throws UncheckedIOException  If the file can't be read.
+     */
+    public boolean hasNext() {
+        try {
+            return this.fill(1);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return  The next game in the file.
+     * @throws NoSuchElementException  If there are no more records.
+     * @throws UncheckedIOException  If the file can't be read, or the last record was cut off.
+     */
+    public GameRecord<Game> next() {
+        ByteBuffer body = this.nextBody();
+        return GameRecord.readFrom(body, this.codec);
+    }
+
+    /**
+     * Skips the next record without decoding it.
+     *
+     * @throws NoSuchElementException  If there are no more records.
+     * @throws UncheckedIOException  If the file can't be read, or the last record was cut off.
+     */
+    public void skip() {
+        this.nextBody();
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException  If the file can't be closed.
+     */
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /* Package-private methods */
+
+    //throws an IOException unless file starts with a header this can read
+    static void checkHeader(Path file) throws IOException {
+        new GameRecordReader<CombinatorialGame>(file, null).close();
+    }
+
+    /* Private methods */
+
+    //finds the next record and returns a view of its body.  The view is only good until the buffer is next filled.
+    private ByteBuffer nextBody() {
+        try {
+            if (!this.fill(1)) {
+                throw new NoSuchElementException("There are no more game records.");
+            }
+            this.fill(MAX_VARINT_LENGTH);
+            int length = GameRecord.readVarint(this.buffer);
+            if (!this.fill(length)) {
+                throw new EOFException("The last game record is cut off.");
+            }
+            ByteBuffer body = this.buffer.slice();
+            body.limit(length);
+            this.buffer.position(this.buffer.position() + length);
+            return body;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (java.nio.BufferUnderflowException bue) {
+            throw new UncheckedIOException(new EOFException("The last game record is cut off."));
+        }
+    }
+
+    //reads until at least numBytes are buffered.  Returns false if the file ends first.
+    private boolean fill(int numBytes) throws IOException {
+        if (this.buffer.remaining() >= numBytes) {
+            return true;
+        }
+        if (numBytes > this.buffer.capacity()) {
+            ByteBuffer bigger = ByteBuffer.allocate(numBytes);
+            bigger.put(this.buffer);
+            this.buffer = bigger;
+        } else {
+            this.buffer.compact();
+        }
+        while (this.buffer.position() < numBytes && this.channel.read(this.buffer) >= 0) {
+        }
+        this.buffer.flip();
+        return this.buffer.remaining() >= numBytes;
+    }
+
+} //end of GameRecordReader<Game extends CombinatorialGame>
@@ -0,0 +1,177 @@
+/**
+ * Appends every game a Referee plays to a record file, in the format described in GameRecord.  Add it to a Referee with
+ * addMatchListener, and close it when the games are done.
+ *
+ * Records are collected in a buffer and written to the file's channel a buffer at a time.  One writer can listen to
+ * several Referees at once, including the workers of a parallel gauntlet.  Games that started before the writer was added
+ * are not recorded.
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class GameRecordWriter<Game extends CombinatorialGame> implements MatchListener<Game>, Closeable {
+
+    //instance variables
+
+    //converts positions and moves
+    private final PositionCodec<Game> codec;
+
+    //the record file, opened for appending
+    private final FileChannel channel;
+
+    //records waiting to be written
+    private final ByteBuffer buffer;
+
+    //the game each referee is playing now
+    private final ConcurrentHashMap<Referee<Game>, GameInProgress> games = new ConcurrentHashMap<Referee<Game>, GameInProgress>();
+
+    //number of records written
+    private long numRecords;
+
+    //constants
+
+    //default size of the buffer
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    //a game that hasn't ended yet
+    private static class GameInProgress {
+        private final int startingPlayer;
+        private final String[] playerNames;
+        private final byte[] encodedPosition;
+        private final IntPureQueue moves = new IntPureQueue();
+
+        private GameInProgress(int startingPlayer, String[] playerNames, byte[] encodedPosition) {
+            this.startingPlayer = startingPlayer;
+            this.playerNames = playerNames;
+            this.encodedPosition = encodedPosition;
+        }
+    }
+
+    //constructors
+
+    /**
+     * Class constructor.  Appends to file if it already exists, or creates it.
+     *
+     * @param file  The record file.
+     * @param codec  The codec for the games' positions.
+     * @throws IOException  If the file can't be opened, or exists and isn't a record file.
+     */
+    public GameRecordWriter(Path file, PositionCodec<Game> codec) throws IOException {
+        this(file, codec, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Class constructor.  Appends to file if it already exists, or creates it.
+     *
+     * @param file  The record file.
+     * @param codec  The codec for the games' positions.
+     * @param bufferSize  The number of bytes to collect before writing to the file.
+     * @throws IOException  If the file can't be opened, or exists and isn't a record file.
+     */
+    public GameRecordWriter(Path file, PositionCodec<Game> codec, int bufferSize) throws IOException {
+        this.codec = codec;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(GameRecord.HEADER_LENGTH, bufferSize));
+        if (Files.exists(file) && Files.size(file) > 0) {
+            GameRecordReader.checkHeader(file);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (this.channel.size() == 0) {
+            this.buffer.putInt(GameRecord.MAGIC);
+            this.buffer.putInt(GameRecord.VERSION);
+        }
+    }
+
+    //public methods
+
+    public void gameStarted(Referee<Game> referee, Game position, int startingPlayer) {
+        String[] playerNames = new String[] {referee.getPlayerName(0), referee.getPlayerName(1)};
+        this.games.put(referee, new GameInProgress(startingPlayer, playerNames, this.codec.encode(position)));
+    }
+
+    public void moveMade(Referee<Game> referee, int playerId, Game position, Game option) {
+        GameInProgress game = this.games.get(referee);
+        if (game != null) {
+            game.moves.add(this.codec.encodeMove(position, playerId, option));
+        }
+    }
+
+    public void gameEnded(Referee<Game> referee, Game position, int winningPlayer, boolean byForfeit) {
+        GameInProgress game = this.games.remove(referee);
+        if (game == null) {
+            return;
+        }
+        this.write(new GameRecord<Game>(this.codec, game.startingPlayer, game.playerNames, game.encodedPosition, game.moves.toArray(), winningPlayer, byForfeit));
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @param record  The record to write.
+     * @throws UncheckedIOException  If the file can't be written.
+     */
+    public synchronized void write(GameRecord<Game> record) {
+        int length = record.encodedLength();
+        try {
+            if (this.buffer.remaining() < length) {
+                this.flush();
+            }
+            if (length > this.buffer.capacity()) {
+                ByteBuffer bigRecord = ByteBuffer.allocate(length);
+                record.writeTo(bigRecord);
+                bigRecord.flip();
+                this.writeFully(bigRecord);
+            } else {
+                record.writeTo(this.buffer);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException("Couldn't write a game record.", ioe);
+        }
+        this.numRecords++;
+    }
+
+    /**
+     * Gets the number of records this has written.
+     *
+     * @return  The number of games recorded since this was created.
+     */
+    public synchronized long getNumRecords() {
+        return this.numRecords;
+    }
+
+    /**
+     * Writes any buffered records to the file.
+     *
+     * @throws IOException  If the file can't be written.
+     */
+    public synchronized void flush() throws IOException {
+        this.buffer.flip();
+        this.writeFully(this.buffer);
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes any buffered records and closes the file.  Games that haven't ended are not recorded.
+     *
+     * @throws IOException  If the file can't be written.
+     */
+    public synchronized void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /* Private methods */
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            this.channel.write(source);
+        }
+    }
+
+} //end of GameRecordWriter<Game extends CombinatorialGame>
@@ -0,0 +1,186 @@
+/**
+ * Models the disjunctive sum of several games.  On their turn, a player chooses exactly one component and moves in it;
+ * the other components stay as they were.
+ */
+
+import java.lang.*;
+import java.io.*;
+import java.util.*;
+
+public class GameSum extends CombinatorialGame {
+
+    //instance variables
+
+    //the games being added.  Never modified.
+    private final CombinatorialGame[] components;
+
+    //combined hash of the components, computed when first needed (0 means not yet)
+    private int hash;
+
+    /**
+     * Class constructor.
+     *
+     * @param components  The games to add together.
+     */
+    public GameSum(CombinatorialGame... components) {
+        this.components = components.clone();
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param components  The games to add together.
+     */
+    public GameSum(List<? extends CombinatorialGame> components) {
+        this.components = components.toArray(new CombinatorialGame[components.size()]);
+    }
+
+    //public methods
+
+    /**
+     * Returns the number of components.
+     *
+     * @return  The number of games in this sum.
+     */
+    public int getNumComponents() {
+        return this.components.length;
+    }
+
+    /**
+     * Returns one of the components.
+     *
+     * @param index  Which component to return.
+     * @return  The component at index.
+     */
+    public CombinatorialGame getComponent(int index) {
+        return this.components[index];
+    }
+
+    //@override
+    public Collection<CombinatorialGame> getOptions(int player) {
+        Collection<CombinatorialGame> options = new Vector<CombinatorialGame>();
+        for (int i = 0; i < this.components.length; i++) {
+            for (CombinatorialGame componentOption : this.components[i].getOptions(player)) {
+                options.add(this.replaceComponent(i, componentOption));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Iterates over the options, building each one only when it is reached.
+     *
+     * @param player  The player to get the options for.
+     * @return  An iterator over the options: every option of the first component, then of the second, and so on.
+     */
+    @Override
+    public Iterator<CombinatorialGame> getOptionIterator(final int player) {
+        return new Iterator<CombinatorialGame>() {
+            //component currently being moved in, and the rest of its options
+            private int index = -1;
+            private Iterator<CombinatorialGame> componentOptions = Collections.<CombinatorialGame>emptyIterator();
+
+            public boolean hasNext() {
+                while (!this.componentOptions.hasNext()) {
+                    if (this.index + 1 >= components.length) {
+                        return false;
+                    }
+                    this.index++;
+                    this.componentOptions = components[this.index].getOptionIterator(player);
+                }
+                return true;
+            }
+
+            public CombinatorialGame next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException("There are no more options of this sum.");
+                }
+                return replaceComponent(this.index, this.componentOptions.next());
+            }
+        };
+    }
+
+    //@override
+    public boolean playerHasAnOption(int player) {
+        for (CombinatorialGame component : this.components) {
+            if (component.playerHasAnOption(player)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a deep clone of this.
+     *
+     * @return  A sum of clones of the components.
+     */
+    public GameSum clone() {
+        CombinatorialGame[] clones = new CombinatorialGame[this.components.length];
+        for (int i = 0; i < clones.length; i++) {
+            clones[i] = this.components[i].clone();
+        }
+        return new GameSum(clones);
+    }
+
+    @Override
+    public boolean equals(CombinatorialGame game) {
+        if (!(game instanceof GameSum)) {
+            return false;
+        }
+        GameSum other = (GameSum) game;
+        if (this == other) {
+            return true;
+        }
+        if (this.components.length != other.components.length || this.hashCode() != other.hashCode()) {
+            return false;
+        }
+        for (int i = 0; i < this.components.length; i++) {
+            if (!this.components[i].equals(other.components[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash of the component hashes, in order.
+     *
+     * @return  A hash code for this position, consistent with equals.
+     */
+    @Override
+    public int structuralHashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = 1;
+            for (CombinatorialGame component : this.components) {
+                hash = 31 * hash + component.hashCode();
+            }
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        StringBuilder string = new StringBuilder("A sum of:");
+        for (CombinatorialGame component : this.components) {
+            string.append("\n  + ").append(component);
+        }
+        return string.toString();
+    }
+
+    /* Private methods */
+
+    //this, with one component replaced.  Shares the others.
+    private GameSum replaceComponent(int index, CombinatorialGame component) {
+        CombinatorialGame[] newComponents = this.components.clone();
+        newComponents[index] = component;
+        return new GameSum(newComponents);
+    }
+
+}  //end of GameSum
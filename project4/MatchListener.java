@@ -0,0 +1,113 @@
+/**
+ * Receives the events of the games a Referee runs.  Register one with Referee.addMatchListener.
+ *
+ * Events pass the positions and players themselves rather than descriptions of them, so nothing is turned into a String
+ * unless a listener decides to.  A Referee with no listeners does no work for them at all.  Every method does nothing by
+ * default, so a listener only needs to override the events it cares about.
+ *
+ * Positions passed to a listener must not be changed.
+ */
+
+//import java.xxxxx.*;
+public interface MatchListener<Game extends CombinatorialGame> {
+
+    //public methods
+
+    /**
+     * Called when a gauntlet starts.
+     *
+     * @param referee  The referee running the gauntlet.
+     * @param numGames  The number of games in the gauntlet.
+     * @param numThreads  The number of games that will be played at once.
+     */
+    public default void gauntletStarted(Referee<Game> referee, int numGames, int numThreads) {
+    }
+
+    /**
+     * Called when a game starts.
+     *
+     * @param referee  The referee running the game.
+     * @param position  The starting position.
+     * @param startingPlayer  The index of the player who moves first.
+     */
+    public default void gameStarted(Referee<Game> referee, Game position, int startingPlayer) {
+    }
+
+    /**
+     * Called after a player makes a legal move.
+     *
+     * @param referee  The referee running the game.
+     * @param playerId  The index of the player who moved.
+     * @param position  The position before the move.
+     * @param option  The position the player moved to.
+     */
+    public default void moveMade(Referee<Game> referee, int playerId, Game position, Game option) {
+    }
+
+    /**
+     * Called when a player chooses a position that isn't one of their options.  A forfeit follows.
+     *
+     * @param referee  The referee running the game.
+     * @param playerId  The index of the player who tried to move.
+     * @param position  The position the player was moving from.
+     * @param option  The position the player chose.
+     */
+    public default void illegalMove(Referee<Game> referee, int playerId, Game position, Game option) {
+    }
+
+    /**
+     * Called when a player fails to choose a move without forfeiting: either they claimed to have no options, or they ran
+     * out of time and timeouts don't forfeit.
+     *
+     * @param referee  The referee running the game.
+     * @param playerId  The index of the player.
+     * @param position  The position the player was moving from.
+     * @param problem  A NoSuchElementException from the player, or a TimeoutException.
+     * @param attemptsRemaining  The number of attempts the player has left this turn.
+     */
+    public default void moveFailed(Referee<Game> referee, int playerId, Game position, Exception problem, int attemptsRemaining) {
+    }
+
+    /**
+     * Called when the referee is about to choose a random move for a player who failed to choose one.
+     *
+     * @param referee  The referee running the game.
+     * @param playerId  The index of the player.
+     * @param position  The position the player is moving from.
+     */
+    public default void randomMoveChosen(Referee<Game> referee, int playerId, Game position) {
+    }
+
+    /**
+     * Called when a player forfeits the game because something went wrong on their turn.
+     *
+     * @param referee  The referee running the game.
+     * @param playerId  The index of the player who forfeits.
+     * @param position  The position the player was moving from.
+     * @param cause  What went wrong.
+     */
+    public default void forfeited(Referee<Game> referee, int playerId, Game position, Exception cause) {
+    }
+
+    /**
+     * Called when a game ends.
+     *
+     * @param referee  The referee running the game.
+     * @param position  The final position.
+     * @param winningPlayer  The index of the winner.
+     * @param byForfeit  Whether the loser forfeited, rather than running out of options.
+     */
+    public default void gameEnded(Referee<Game> referee, Game position, int winningPlayer, boolean byForfeit) {
+    }
+
+    /**
+     * Called when a gauntlet ends.
+     *
+     * @param referee  The referee that ran the gauntlet.
+     * @param numGames  The number of games played.
+     * @param gamesWon  The number of games won by each player.
+     */
+    public default void gauntletEnded(Referee<Game> referee, int numGames, int[] gamesWon) {
+    }
+
+} //end of MatchListener<Game extends CombinatorialGame>
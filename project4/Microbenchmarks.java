@@ -0,0 +1,271 @@
+/**
+ * Times the hot paths of positions, queues and refereeing, so each change to them gets a number attached.
+ *
+ * Every benchmark runs for each combination of pile count and pile size.  It is warmed up for a few iterations, then
+ * timed for a few more, and the average time per operation is reported with the spread over the timed iterations.
+ * Results are folded into a sink field so the JIT can't throw the work away.  Run with:
+ *     java Microbenchmarks [filter=name] [numPiles=5,20] [maxPileSize=4,50] [warmups=3] [iterations=5] [iterationMillis=200]
+ * where filter keeps only the benchmarks whose names contain name.
+ */
+
+import java.util.*;
+
+public class Microbenchmarks {
+
+    //number of positions each benchmark cycles through, so it doesn't measure one cached position
+    private static final int NUM_POSITIONS = 256;
+
+    //number of games in one operation of the gauntlet benchmark
+    private static final int GAMES_PER_GAUNTLET = 100;
+
+    //where results go so they aren't optimized away
+    private static volatile long sink;
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args  Optional key=value settings, as described above.
+     */
+    public static void main(String[] args) {
+        Map<String, String> settings = new HashMap<String, String>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Arguments look like key=value, not " + arg);
+            }
+            settings.put(arg.substring(0, split), arg.substring(split + 1));
+        }
+        String filter = settings.containsKey("filter") ? settings.get("filter") : "";
+        int[] pileCounts = parseInts(settings.containsKey("numPiles") ? settings.get("numPiles") : "5,20");
+        int[] pileSizes = parseInts(settings.containsKey("maxPileSize") ? settings.get("maxPileSize") : "4,50");
+        int warmups = settings.containsKey("warmups") ? Integer.parseInt(settings.get("warmups")) : 3;
+        int iterations = settings.containsKey("iterations") ? Integer.parseInt(settings.get("iterations")) : 5;
+        long iterationNanos = 1000000L * (settings.containsKey("iterationMillis") ? Long.parseLong(settings.get("iterationMillis")) : 200);
+
+        System.out.println(String.format("%-30s %10s %12s %14s %12s  %s", "Benchmark", "(numPiles)", "(maxPileSize)", "Score", "Error", "Units"));
+        for (Benchmark benchmark : getBenchmarks()) {
+            if (!benchmark.name.contains(filter)) {
+                continue;
+            }
+            for (int numPiles : pileCounts) {
+                for (int maxPileSize : pileSizes) {
+                    benchmark.setUp(numPiles, maxPileSize);
+                    double[] nanosPerOp = measure(benchmark, warmups, iterations, iterationNanos);
+                    System.out.println(String.format("%-30s %10d %12d %14.1f %12.1f  ns/op", benchmark.name, numPiles, maxPileSize, nanosPerOp[0], nanosPerOp[1]));
+                }
+            }
+        }
+    }
+
+    /* Private methods */
+
+    //the benchmarks, in the order they run
+    private static List<Benchmark> getBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        benchmarks.add(new Benchmark("PureQueue.addRemove") {
+            private PureQueue<Integer> queue;
+            void setUp(int numPiles, int maxPileSize) {
+                this.queue = new PureQueue<Integer>();
+                for (int pileSize : randomPiles(new Random(numPiles), numPiles, maxPileSize)) {
+                    this.queue.add(pileSize);
+                }
+            }
+            long run(long numOps) {
+                long total = 0;
+                for (long i = 0; i < numOps; i++) {
+                    Integer pileSize = this.queue.remove();
+                    total += pileSize;
+                    this.queue.add(pileSize);
+                }
+                return total;
+            }
+        });
+
+        benchmarks.add(new Benchmark("IntPureQueue.addRemove") {
+            private IntPureQueue queue;
+            void setUp(int numPiles, int maxPileSize) {
+                this.queue = new IntPureQueue(randomPiles(new Random(numPiles), numPiles, maxPileSize));
+            }
+            long run(long numOps) {
+                long total = 0;
+                for (long i = 0; i < numOps; i++) {
+                    int pileSize = this.queue.remove();
+                    total += pileSize;
+                    this.queue.add(pileSize);
+                }
+                return total;
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("RotisserieNim.getOption") {
+            long run(RotisserieNim position) {
+                return position.getOption(this.index % position.getFirstPileSize()).getNumPiles();
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("RotisserieNim.getOptions") {
+            long run(RotisserieNim position) {
+                return position.getOptions(CombinatorialGame.LEFT).size();
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("RotisserieNim.equals") {
+            long run(RotisserieNim position) {
+                return position.equals(this.copies[this.index]) ? 1 : 0;
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("RotisserieNim.hashCode") {
+            long run(RotisserieNim position) {
+                return this.copies[this.index].hashCode();
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("RotisserieNim.toString") {
+            long run(RotisserieNim position) {
+                return position.toString().length();
+            }
+        });
+
+        benchmarks.add(new PositionBenchmark("CombinatorialGame.hasOption") {
+            long run(RotisserieNim position) {
+                return position.hasOption(CombinatorialGame.LEFT, this.options[this.index]) ? 1 : 0;
+            }
+        });
+
+        benchmarks.add(new Benchmark("Referee.gauntlet") {
+            private Referee<RotisserieNim> referee;
+            void setUp(int numPiles, int maxPileSize) {
+                this.referee = new Referee<RotisserieNim>(new RandomPlayer<RotisserieNim>(), new RandomPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(numPiles, maxPileSize));
+                this.referee.setReportsGauntlets(false);
+            }
+            long run(long numOps) {
+                long total = 0;
+                for (long i = 0; i < numOps; i++) {
+                    total += (long) (this.referee.gauntlet(GAMES_PER_GAUNTLET, false, 1)[0] * GAMES_PER_GAUNTLET);
+                }
+                return total;
+            }
+        });
+
+        return benchmarks;
+    }
+
+    //runs warmup and timed iterations.  Returns the mean and standard deviation of the nanoseconds per operation.
+    private static double[] measure(Benchmark benchmark, int warmups, int iterations, long iterationNanos) {
+        long numOps = 1;
+        long elapsed;
+        while ((elapsed = timeRun(benchmark, numOps)) < iterationNanos / 10) {
+            numOps *= 2;
+        }
+        numOps = Math.max(1, (long) ((double) numOps * iterationNanos / Math.max(1, elapsed)));
+        for (int i = 0; i < warmups; i++) {
+            timeRun(benchmark, numOps);
+        }
+        double[] samples = new double[iterations];
+        double mean = 0;
+        for (int i = 0; i < iterations; i++) {
+            samples[i] = (double) timeRun(benchmark, numOps) / numOps;
+            mean += samples[i] / iterations;
+        }
+        double variance = 0;
+        for (double sample : samples) {
+            variance += (sample - mean) * (sample - mean) / Math.max(1, iterations - 1);
+        }
+        return new double[] {mean, Math.sqrt(variance)};
+    }
+
+    //times one iteration
+    private static long timeRun(Benchmark benchmark, long numOps) {
+        long start = System.nanoTime();
+        sink += benchmark.run(numOps);
+        return System.nanoTime() - start;
+    }
+
+    //parses a comma-separated list
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+
+    //exactly numPiles piles, each with between 1 and maxPileSize sticks
+    private static int[] randomPiles(Random random, int numPiles, int maxPileSize) {
+        int[] piles = new int[numPiles];
+        for (int i = 0; i < numPiles; i++) {
+            piles[i] = 1 + random.nextInt(maxPileSize);
+        }
+        return piles;
+    }
+
+    /**
+     * One thing to time.
+     */
+    private static abstract class Benchmark {
+
+        //name printed in the results
+        private final String name;
+
+        Benchmark(String name) {
+            this.name = name;
+        }
+
+        //prepares for a combination of parameters
+        abstract void setUp(int numPiles, int maxPileSize);
+
+        //does numOps operations and returns something that depends on all of them
+        abstract long run(long numOps);
+    }
+
+    /**
+     * A benchmark that does one thing to each of a batch of positions in turn.
+     */
+    private static abstract class PositionBenchmark extends Benchmark {
+
+        //the positions
+        RotisserieNim[] positions;
+
+        //equal positions built separately, so they share no piles with positions
+        RotisserieNim[] copies;
+
+        //a random option of each position
+        RotisserieNim[] options;
+
+        //index of the position being used
+        int index;
+
+        PositionBenchmark(String name) {
+            super(name);
+        }
+
+        void setUp(int numPiles, int maxPileSize) {
+            Random random = new Random(31 * numPiles + maxPileSize);
+            this.positions = new RotisserieNim[NUM_POSITIONS];
+            this.copies = new RotisserieNim[NUM_POSITIONS];
+            this.options = new RotisserieNim[NUM_POSITIONS];
+            for (int i = 0; i < NUM_POSITIONS; i++) {
+                int[] piles = randomPiles(random, numPiles, maxPileSize);
+                this.positions[i] = new RotisserieNim(piles);
+                this.copies[i] = new RotisserieNim(piles);
+                this.options[i] = this.positions[i].getOption(random.nextInt(piles[0]));
+            }
+        }
+
+        long run(long numOps) {
+            long total = 0;
+            for (long i = 0; i < numOps; i++) {
+                this.index = (int) (i & (NUM_POSITIONS - 1));
+                total += this.run(this.positions[this.index]);
+            }
+            return total;
+        }
+
+        //does the operation to one position
+        abstract long run(RotisserieNim position);
+    }
+
+} //end of Microbenchmarks
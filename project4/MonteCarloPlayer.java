@@ -0,0 +1,379 @@
+/**
+ * A Player that chooses moves by Monte Carlo Tree Search, so it works on any ruleset, however big, using only its options.
+ *
+ * Each playout walks down the search tree by UCT (the option with the best win rate plus an exploration bonus for options
+ * tried less often), adds one new node, then plays random moves to the end of the game and counts the result back up the
+ * path.  The move made is the option with the most playouts.
+ *
+ * The search is root parallel: every worker thread grows its own tree from the same position, without any locking, and
+ * their playout counts are added up option by option at the end.  After each move, every worker keeps the subtree under
+ * the chosen option.  If the next position this is asked about is one of the opponent's replies in that subtree, the
+ * search carries on from there instead of starting over.
+ *
+ * The budget for each move is either a number of playouts or an amount of time.
+ *
+ * Playouts go through CombinatorialGame.randomPlayout, so rulesets with a faster way to play a random game (such as
+ * Rotisserie Nim's RotisserieBoard) use it without this knowing about them.
+ */
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MonteCarloPlayer<G extends CombinatorialGame> extends Player<G> {
+
+    //instance variables
+
+    //one search tree per thread
+    private Worker[] workers;
+
+    //runs the workers after the first.  Created when first needed.
+    private ExecutorService pool;
+
+    //playouts per move, when there is no time budget
+    private long playoutBudget;
+
+    //milliseconds per move, or 0 to use the playout budget
+    private long timeBudget;
+
+    //weight of the exploration term in UCT
+    private double exploration;
+
+    //total playouts run, and the nanoseconds spent searching
+    private long totalPlayouts;
+    private long totalSearchNanos;
+
+    //constants
+
+    //default playouts per move
+    private static final long DEFAULT_PLAYOUT_BUDGET = 10000;
+
+    //default exploration weight, the usual square root of 2
+    private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    /**
+     * Class constructor.  Uses one thread per available processor and 10,000 playouts per move.
+     */
+    public MonteCarloPlayer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Class constructor.  Uses 10,000 playouts per move.
+     *
+     * @param numThreads  The number of trees to search at once.
+     */
+    public MonteCarloPlayer(int numThreads) {
+        this.workers = new Worker[Math.max(1, numThreads)];
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new Worker(seeds.split());
+        }
+        this.setPlayoutBudget(DEFAULT_PLAYOUT_BUDGET);
+        this.setExploration(DEFAULT_EXPLORATION);
+    }
+
+    //public methods
+
+    /**
+     * Limits each move to a number of playouts, shared between the threads.  Turns off any time budget.
+     *
+     * @param playouts  The number of playouts per move.
+     */
+    public void setPlayoutBudget(long playouts) {
+        this.playoutBudget = Math.max(1, playouts);
+        this.timeBudget = 0;
+    }
+
+    /**
+     * Limits each move to an amount of time.  Each thread runs as many playouts as it can in that time.
+     *
+     * @param millis  The milliseconds per move.
+     */
+    public void setTimeBudget(long millis) {
+        this.timeBudget = Math.max(1, millis);
+    }
+
+    /**
+     * Sets how much UCT favors options with fewer playouts over options with better results.
+     *
+     * @param exploration  The weight of the exploration term.  Higher explores more.
+     */
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * Chooses an option to move to.
+     *
+     * @param position  The position to choose an option of.
+     * @param playerId  The index of the current player.  (Either CombinatorialGame.LEFT or CombinatorialGame.RIGHT.)
+     * @return  The option with the most playouts.
+     */
+    @SuppressWarnings("unchecked")
+    public G getMove(G position, int playerId) {
+        if (!position.playerHasAnOption(playerId)) {
+            throw new NoSuchElementException("No moves of " + position + " exist for " + position.getPlayerName(playerId) + ".  Tried to call Player.getMove()!");
+        }
+        for (Worker worker : this.workers) {
+            worker.setRoot(position, playerId);
+        }
+        long start = System.nanoTime();
+        final long deadline = (this.timeBudget > 0) ? start + this.timeBudget * 1000000 : Long.MAX_VALUE;
+        final AtomicLong playoutsLeft = new AtomicLong((this.timeBudget > 0) ? Long.MAX_VALUE : this.playoutBudget);
+        List<Future<?>> results = new ArrayList<Future<?>>();
+        for (int i = 1; i < this.workers.length; i++) {
+            final Worker worker = this.workers[i];
+            results.add(this.getPool().submit(new Callable<Void>() {
+                public Void call() {
+                    worker.search(deadline, playoutsLeft, exploration);
+                    return null;
+                }
+            }));
+        }
+        this.workers[0].search(deadline, playoutsLeft, this.exploration);
+        try {
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while searching.", ie);
+        } catch (ExecutionException ee) {
+            throw new RuntimeException("A search thread failed: " + ee.getCause(), ee.getCause());
+        }
+        this.totalSearchNanos += System.nanoTime() - start;
+
+        //add up the playouts of each option over all the trees.  Every tree expands options in the same order.
+        long[] visitsByOption = new long[0];
+        for (Worker worker : this.workers) {
+            this.totalPlayouts += worker.playouts;
+            List<Node> children = worker.root.children;
+            if (children.size() > visitsByOption.length) {
+                visitsByOption = Arrays.copyOf(visitsByOption, children.size());
+            }
+            for (int i = 0; i < children.size(); i++) {
+                visitsByOption[i] += children.get(i).visits;
+            }
+        }
+        int bestIndex = 0;
+        for (int i = 1; i < visitsByOption.length; i++) {
+            if (visitsByOption[i] > visitsByOption[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+        CombinatorialGame move = null;
+        for (Worker worker : this.workers) {
+            Node chosen = worker.moveRoot(bestIndex);
+            if (chosen != null) {
+                move = chosen.position;
+            }
+        }
+        return (G) move;
+    }
+
+    /**
+     * Gets the number of playouts this has run.
+     *
+     * @return  The total number of playouts over all moves and threads.
+     */
+    public long getPlayouts() {
+        return this.totalPlayouts;
+    }
+
+    /**
+     * Gets the search speed.
+     *
+     * @return  Playouts per second of searching, over all threads.
+     */
+    public double getPlayoutsPerSecond() {
+        return (this.totalSearchNanos == 0) ? 0 : this.totalPlayouts * 1e9 / this.totalSearchNanos;
+    }
+
+    /**
+     * Returns a string version of this.
+     *
+     * @return  A string representation of this player.
+     */
+    public String toString() {
+        return "Monte Carlo Player";
+    }
+
+    /**
+     * Unit test for MonteCarloPlayer.  Plays random and perfect players from random Rotisserie Nim positions.
+     */
+    public static void main(String[] args) {
+        MonteCarloPlayer<RotisserieNim> monteCarlo = new MonteCarloPlayer<RotisserieNim>();
+        monteCarlo.setPlayoutBudget(2000);
+        Referee<RotisserieNim> referee = new Referee<RotisserieNim>(monteCarlo, new RandomPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(6, 8));
+        referee.gauntlet(200);
+        System.out.println(String.format("%,d playouts at %,.0f per second.", monteCarlo.getPlayouts(), monteCarlo.getPlayoutsPerSecond()));
+        referee = new Referee<RotisserieNim>(monteCarlo, new PerfectPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(6, 8));
+        referee.gauntlet(100);
+        monteCarlo.setTimeBudget(20);
+        referee.gauntlet(20);
+        System.out.println(String.format("%,d playouts at %,.0f per second.", monteCarlo.getPlayouts(), monteCarlo.getPlayoutsPerSecond()));
+    }
+
+    /* Private methods */
+
+    private synchronized ExecutorService getPool() {
+        if (this.pool == null) {
+            this.pool = Executors.newFixedThreadPool(this.workers.length - 1, new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "Monte Carlo search");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return this.pool;
+    }
+
+    /**
+     * A node of a search tree.
+     */
+    private static class Node {
+
+        //the position here
+        private final CombinatorialGame position;
+
+        //whose turn it is here
+        private final int playerToMove;
+
+        //the node above this, or null at the root
+        private Node parent;
+
+        //options not yet added as children, or null before the first is needed
+        private Iterator<CombinatorialGame> untried;
+
+        //options added so far, in the order the iterator gives them
+        private final ArrayList<Node> children = new ArrayList<Node>(2);
+
+        //playouts through this, and how many were won by the player who moved here
+        private int visits;
+        private int wins;
+
+        private Node(CombinatorialGame position, int playerToMove, Node parent) {
+            this.position = position;
+            this.playerToMove = playerToMove;
+            this.parent = parent;
+        }
+
+        //whether some option hasn't been added as a child yet
+        private boolean hasUntriedOption() {
+            if (this.untried == null) {
+                this.untried = this.position.getOptionIterator(this.playerToMove);
+            }
+            return this.untried.hasNext();
+        }
+
+        //adds the next untried option as a child
+        private Node expand() {
+            Node child = new Node(this.untried.next(), 1 - this.playerToMove, this);
+            this.children.add(child);
+            return child;
+        }
+
+        //the child with the best UCT score
+        private Node selectChild(double exploration) {
+            double logVisits = Math.log(this.visits);
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : this.children) {
+                double score = ((double) child.wins) / child.visits + exploration * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * One thread's search tree.
+     */
+    private static class Worker {
+
+        //the position being searched from
+        private Node root;
+
+        //random moves for playouts
+        private final SplittableRandom random;
+
+        //playouts run for the current move
+        private long playouts;
+
+        private Worker(SplittableRandom random) {
+            this.random = random;
+        }
+
+        //starts from position, reusing the tree if position is a reply to the last move
+        private void setRoot(CombinatorialGame position, int playerId) {
+            Node reused = null;
+            if (this.root != null && this.root.playerToMove != playerId) {
+                for (Node reply : this.root.children) {
+                    if (reply.playerToMove == playerId && reply.position.equals(position)) {
+                        reused = reply;
+                        break;
+                    }
+                }
+            }
+            if (reused == null) {
+                this.root = new Node(position, playerId, null);
+            } else {
+                reused.parent = null;
+                this.root = reused;
+            }
+            this.playouts = 0;
+        }
+
+        //moves the root to a child, keeping its subtree for the next move.  Returns the child, or null if this tree never tried it.
+        private Node moveRoot(int childIndex) {
+            if (childIndex >= this.root.children.size()) {
+                this.root = null;
+                return null;
+            }
+            Node child = this.root.children.get(childIndex);
+            child.parent = null;
+            this.root = child;
+            return child;
+        }
+
+        //runs playouts until the deadline passes or none are left
+        private void search(long deadline, AtomicLong playoutsLeft, double exploration) {
+            while (playoutsLeft.getAndDecrement() > 0) {
+                this.playout(exploration);
+                this.playouts++;
+                if (deadline != Long.MAX_VALUE && (this.playouts & 15) == 0 && System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+        }
+
+        //runs one playout and counts its result
+        private void playout(double exploration) {
+            Node node = this.root;
+            while (!node.hasUntriedOption() && !node.children.isEmpty()) {
+                node = node.selectChild(exploration);
+            }
+            if (node.hasUntriedOption()) {
+                node = node.expand();
+            }
+            int winner = node.position.randomPlayout(node.playerToMove, this.random);
+            for (; node != null; node = node.parent) {
+                node.visits++;
+                if (winner != node.playerToMove) {
+                    node.wins++;
+                }
+            }
+        }
+    }
+
+} //end of MonteCarloPlayer
@@ -0,0 +1,357 @@
+/**
+ * A deterministic search Player for any ruleset: negamax with alpha-beta pruning and iterative deepening.
+ *
+ * Each move is searched one level deeper at a time until the time budget or the depth limit runs out, and the last
+ * finished depth decides the move.  Positions the search can't see past are scored by a PositionEvaluator.  Wins are
+ * scored above any evaluation, and sooner wins above later ones, so a win found at any depth is played straight away.
+ *
+ * Results go in a TranspositionTable that lasts as long as the player (and may be shared with other players).  Each
+ * entry packs the score, the depth it was searched to, whether the score is exact or only a bound, the player to move,
+ * and the index of the best option.  The best option is searched first the next time the position comes up, so each
+ * iteration is ordered by the one before.  Options after the best one are only generated if there is no cutoff.
+ *
+ * With no time budget, the player searches to its depth limit and always makes the same move from the same position with
+ * the same table.
+ */
+
+import java.util.*;
+
+public class NegamaxPlayer<G extends CombinatorialGame> extends Player<G> {
+
+    //instance variables
+
+    //remembers searched positions between iterations and moves
+    private TranspositionTable table;
+
+    //scores positions at the search horizon
+    private PositionEvaluator<G> evaluator;
+
+    //milliseconds per move, or 0 for no limit
+    private long timeBudget;
+
+    //deepest iteration
+    private int maxDepth;
+
+    //System.nanoTime() at which the current search gives up
+    private long deadline;
+
+    //index of the best root option found by the current iteration
+    private int rootBestIndex;
+
+    //number of positions searched, and the nanoseconds spent
+    private long nodeCount;
+    private long searchNanos;
+
+    //depth of the last completed iteration
+    private int lastDepth;
+
+    //constants
+
+    /**
+     * The score of a position the player to move wins immediately.  Each move of delay costs one point.
+     */
+    public static final int WIN_SCORE = 1000000;
+
+    //scores above this are wins, below its negative losses
+    private static final int WIN_THRESHOLD = WIN_SCORE - 10000;
+
+    //bounds stored in the table
+    private static final int EXACT = 0;
+    private static final int LOWER_BOUND = 1;
+    private static final int UPPER_BOUND = 2;
+
+    //layout of a table entry: best option index + 1 (0 for none), player, bound, depth and score
+    private static final int INDEX_BITS = 21;
+    private static final int PLAYER_SHIFT = 21;
+    private static final int BOUND_SHIFT = 22;
+    private static final int DEPTH_SHIFT = 24;
+    private static final int SCORE_SHIFT = 32;
+
+    //default settings
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+    private static final long DEFAULT_TIME_BUDGET = 100;
+    private static final int DEFAULT_MAX_DEPTH = 64;
+
+    //how many nodes are searched between looks at the clock
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    //thrown through the search when time runs out.  Shared, so it has no stack trace.
+    private static final RuntimeException OUT_OF_TIME = new RuntimeException("Out of time", null, false, false) {};
+
+    /**
+     * Class constructor.  Evaluates every unfinished position as 0, and searches for 100 ms per move.
+     */
+    public NegamaxPlayer() {
+        this(new PositionEvaluator<G>() {
+            public int evaluate(G position, int playerToMove) {
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Class constructor.  Searches for 100 ms per move.
+     *
+     * @param evaluator  Scores the positions at the search horizon.
+     */
+    public NegamaxPlayer(PositionEvaluator<G> evaluator) {
+        this(evaluator, new ArrayTranspositionTable(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Class constructor.  Searches for 100 ms per move.
+     *
+     * @param evaluator  Scores the positions at the search horizon.
+     * @param table  Where to keep search results.  May be shared with other players as long as they don't search at the
+     *               same time, or with players on other threads if it is thread safe.
+     */
+    public NegamaxPlayer(PositionEvaluator<G> evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.timeBudget = DEFAULT_TIME_BUDGET;
+        this.maxDepth = DEFAULT_MAX_DEPTH;
+    }
+
+    //public methods
+
+    /**
+     * Limits the time per move.  The iteration that is running when time is up is thrown away.
+     *
+     * @param millis  The milliseconds per move, or 0 to search to the depth limit every time.
+     */
+    public void setTimeBudget(long millis) {
+        this.timeBudget = Math.max(0, millis);
+    }
+
+    /**
+     * Limits the depth of the search.
+     *
+     * @param depth  The deepest iteration, in moves.  At most 255.
+     */
+    public void setMaxDepth(int depth) {
+        this.maxDepth = Math.max(1, Math.min(255, depth));
+    }
+
+    /**
+     * Chooses an option to move to.
+     *
+     * @param position  The position to choose an option of.
+     * @param playerId  The index of the current player.  (Either CombinatorialGame.LEFT or CombinatorialGame.RIGHT.)
+     * @return  The best option found by the deepest finished iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public G getMove(G position, int playerId) {
+        Iterator<CombinatorialGame> optionIterator = position.getOptionIterator(playerId);
+        if (!optionIterator.hasNext()) {
+            throw new NoSuchElementException("No moves of " + position + " exist for " + position.getPlayerName(playerId) + ".  Tried to call Player.getMove()!");
+        }
+        long start = System.nanoTime();
+        this.deadline = (this.timeBudget > 0) ? start + this.timeBudget * 1000000 : Long.MAX_VALUE;
+        int bestIndex = 0;
+        try {
+            for (int depth = 1; depth <= this.maxDepth; depth++) {
+                this.rootBestIndex = 0;
+                int score = this.negamax(position, playerId, depth, -WIN_SCORE - 1, WIN_SCORE + 1, true);
+                bestIndex = this.rootBestIndex;
+                this.lastDepth = depth;
+                if (score > WIN_THRESHOLD || score < -WIN_THRESHOLD) {
+                    //the result is certain; searching deeper won't change it
+                    break;
+                }
+            }
+        } catch (RuntimeException re) {
+            if (re != OUT_OF_TIME) {
+                throw re;
+            }
+        }
+        this.searchNanos += System.nanoTime() - start;
+        CombinatorialGame option = null;
+        for (int i = 0; i <= bestIndex; i++) {
+            option = optionIterator.next();
+        }
+        return (G) option;
+    }
+
+    /**
+     * Gets the number of positions searched.
+     *
+     * @return  The number of positions this has searched over all moves.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Gets the search speed.
+     *
+     * @return  Positions searched per second.
+     */
+    public double getNodesPerSecond() {
+        return (this.searchNanos == 0) ? 0 : this.nodeCount * 1e9 / this.searchNanos;
+    }
+
+    /**
+     * Gets the depth of the last move's search.
+     *
+     * @return  The deepest iteration finished for the last move.
+     */
+    public int getLastDepth() {
+        return this.lastDepth;
+    }
+
+    /**
+     * Returns the table, for its statistics.
+     *
+     * @return  The table this uses.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Returns a string version of this.
+     *
+     * @return  A string representation of this player.
+     */
+    public String toString() {
+        return "Negamax Player";
+    }
+
+    /**
+     * Unit test for NegamaxPlayer.  Plays random, Monte Carlo and perfect players from random Rotisserie Nim positions.
+     */
+    public static void main(String[] args) {
+        NegamaxPlayer<RotisserieNim> negamax = new NegamaxPlayer<RotisserieNim>();
+        negamax.setTimeBudget(20);
+        RotisserieNim.RotisserieFactory factory = new RotisserieNim.RotisserieFactory(8, 10);
+        new Referee<RotisserieNim>(negamax, new RandomPlayer<RotisserieNim>(), factory).gauntlet(200);
+        MonteCarloPlayer<RotisserieNim> monteCarlo = new MonteCarloPlayer<RotisserieNim>();
+        monteCarlo.setTimeBudget(20);
+        new Referee<RotisserieNim>(negamax, monteCarlo, factory).gauntlet(50);
+        new Referee<RotisserieNim>(negamax, new PerfectPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(6, 8)).gauntlet(100);
+        System.out.println(String.format("%,d positions at %,.0f per second.  Last search reached depth %d.  %s", negamax.getNodeCount(), negamax.getNodesPerSecond(), negamax.getLastDepth(), negamax.getTable()));
+
+        NegamaxPlayer<RotisserieNim> first = new NegamaxPlayer<RotisserieNim>();
+        NegamaxPlayer<RotisserieNim> second = new NegamaxPlayer<RotisserieNim>();
+        first.setTimeBudget(0);
+        second.setTimeBudget(0);
+        first.setMaxDepth(6);
+        second.setMaxDepth(6);
+        RotisserieNim position = new RotisserieNim(new int[] {9, 4, 12, 7, 3, 10, 5, 8});
+        System.out.println("Depth-limited searches agree: " + first.getMove(position, CombinatorialGame.LEFT).equals(second.getMove(position, CombinatorialGame.LEFT)));
+    }
+
+    /* Private methods */
+
+    //scores position for playerToMove, searching depth moves ahead.  Scores outside (alpha, beta) are only bounds.
+    @SuppressWarnings("unchecked")
+    private int negamax(CombinatorialGame position, int playerToMove, int depth, int alpha, int beta, boolean isRoot) {
+        this.nodeCount++;
+        if ((this.nodeCount & (CLOCK_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= this.deadline) {
+            throw OUT_OF_TIME;
+        }
+        if (!position.playerHasAnOption(playerToMove)) {
+            return -WIN_SCORE;
+        }
+        if (depth == 0) {
+            return this.evaluator.evaluate((G) position, playerToMove);
+        }
+
+        int hashIndex = -1;
+        long entry = this.table.get(position);
+        if (entry != TranspositionTable.MISSING && entryPlayer(entry) == playerToMove) {
+            hashIndex = entryBestIndex(entry);
+            if (!isRoot && entryDepth(entry) >= depth) {
+                int storedScore = entryScore(entry);
+                int bound = entryBound(entry);
+                if (bound == EXACT) {
+                    return storedScore;
+                } else if (bound == LOWER_BOUND) {
+                    alpha = Math.max(alpha, storedScore);
+                } else {
+                    beta = Math.min(beta, storedScore);
+                }
+                if (alpha >= beta) {
+                    return storedScore;
+                }
+            }
+        }
+
+        //search the best option from last time first, generating the rest only as they're needed
+        int originalAlpha = alpha;
+        int bestScore = -WIN_SCORE - 1;
+        int bestIndex = -1;
+        Iterator<CombinatorialGame> optionIterator = position.getOptionIterator(playerToMove);
+        ArrayList<CombinatorialGame> generated = new ArrayList<CombinatorialGame>();
+        if (hashIndex >= 0) {
+            while (generated.size() <= hashIndex && optionIterator.hasNext()) {
+                generated.add(optionIterator.next());
+            }
+            if (generated.size() <= hashIndex) {
+                hashIndex = -1;
+            }
+        }
+        for (int step = -1; ; step++) {
+            int index = (step < 0) ? hashIndex : step;
+            if (index < 0 || (step >= 0 && index == hashIndex)) {
+                continue;
+            }
+            if (index >= generated.size()) {
+                if (!optionIterator.hasNext()) {
+                    break;
+                }
+                generated.add(optionIterator.next());
+            }
+            int score = -this.negamax(generated.get(index), 1 - playerToMove, depth - 1, -beta, -alpha, false);
+            //a win or loss further away is worth a little less
+            if (score > WIN_THRESHOLD) {
+                score--;
+            } else if (score < -WIN_THRESHOLD) {
+                score++;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = index;
+                if (isRoot) {
+                    this.rootBestIndex = index;
+                }
+            }
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        int bound = (bestScore <= originalAlpha) ? UPPER_BOUND : ((bestScore >= beta) ? LOWER_BOUND : EXACT);
+        this.table.put(position, packEntry(bestScore, depth, bound, playerToMove, bestIndex));
+        return bestScore;
+    }
+
+    //packs a table entry
+    private static long packEntry(int score, int depth, int bound, int playerToMove, int bestIndex) {
+        long bestBits = (bestIndex + 1 < (1 << INDEX_BITS)) ? bestIndex + 1 : 0;
+        return ((long) score << SCORE_SHIFT) | ((long) depth << DEPTH_SHIFT) | ((long) bound << BOUND_SHIFT) | ((long) playerToMove << PLAYER_SHIFT) | bestBits;
+    }
+
+    private static int entryScore(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    private static int entryDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    private static int entryBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int entryPlayer(long entry) {
+        return (int) (entry >>> PLAYER_SHIFT) & 1;
+    }
+
+    //index of the best option, or -1 if there wasn't one
+    private static int entryBestIndex(long entry) {
+        return (int) (entry & ((1 << INDEX_BITS) - 1)) - 1;
+    }
+
+} //end of NegamaxPlayer
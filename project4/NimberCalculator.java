@@ -0,0 +1,170 @@
+/**
+ * Finds the Sprague-Grundy value (nimber) of positions of impartial games: games where both players have the same
+ * options, like Rotisserie Nim.  A position's nimber is the smallest non-negative integer that isn't the nimber of one of
+ * its options (the "mex"), and the player to move wins exactly when it isn't zero.
+ *
+ * Nimbers are cached in a TranspositionTable.  The nimber of a GameSum is the XOR of its components' nimbers, so sums are
+ * solved one component at a time and never searched as a whole.  Options are taken as Left's; the results are
+ * meaningless for partisan games.
+ */
+
+import java.util.*;
+
+public class NimberCalculator {
+
+    //default number of table entries
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+
+    //instance variables
+
+    //nimbers found so far
+    private TranspositionTable table;
+
+    //number of positions whose options this has had to look at
+    private long nodeCount;
+
+    /**
+     * Class constructor.
+     */
+    public NimberCalculator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param capacity  The number of nimbers the table can hold.
+     */
+    public NimberCalculator(int capacity) {
+        this(new ArrayTranspositionTable(capacity));
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param table  The table to cache nimbers in.
+     */
+    public NimberCalculator(TranspositionTable table) {
+        this.table = table;
+    }
+
+    //public methods
+
+    /**
+     * Finds the nimber of a position.
+     *
+     * @param position  A position of an impartial game.
+     * @return  The Sprague-Grundy value of position.
+     */
+    public int getNimber(CombinatorialGame position) {
+        if (position instanceof GameSum) {
+            GameSum sum = (GameSum) position;
+            int nimber = 0;
+            for (int i = 0; i < sum.getNumComponents(); i++) {
+                nimber ^= this.getNimber(sum.getComponent(i));
+            }
+            return nimber;
+        }
+        long cached = this.table.get(position);
+        if (cached != TranspositionTable.MISSING) {
+            return (int) cached;
+        }
+        this.nodeCount++;
+        Collection<CombinatorialGame> options = position.getOptions(CombinatorialGame.LEFT);
+        //a position with n options has a nimber of at most n
+        boolean[] optionNimbers = new boolean[options.size() + 1];
+        for (CombinatorialGame option : options) {
+            int optionNimber = this.getNimber(option);
+            if (optionNimber < optionNimbers.length) {
+                optionNimbers[optionNimber] = true;
+            }
+        }
+        int mex = 0;
+        while (optionNimbers[mex]) {
+            mex++;
+        }
+        this.table.put(position, mex);
+        return mex;
+    }
+
+    /**
+     * Determines whether the player to move wins.
+     *
+     * @param position  A position of an impartial game.
+     * @return  Whether the nimber of position is not zero.
+     */
+    public boolean isNextPlayerWin(CombinatorialGame position) {
+        return this.getNimber(position) != 0;
+    }
+
+    /**
+     * Finds a winning move.
+     *
+     * @param position  A position of an impartial game.
+     * @return  An option with nimber zero, or null if there are none.
+     */
+    public CombinatorialGame getWinningOption(CombinatorialGame position) {
+        for (Iterator<CombinatorialGame> options = position.getOptionIterator(CombinatorialGame.LEFT); options.hasNext(); ) {
+            CombinatorialGame option = options.next();
+            if (this.getNimber(option) == 0) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of positions evaluated so far.
+     *
+     * @return  The number of positions whose options this had to look at.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Returns the cache, for its statistics.
+     *
+     * @return  The table this stores nimbers in.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this, with its statistics.
+     */
+    public String toString() {
+        return "A nimber calculator: " + this.nodeCount + " positions evaluated, hit rate " + String.format("%.1f%%", 100 * this.table.getHitRate()) + ".";
+    }
+
+    /**
+     * Unit test for NimberCalculator.  Checks sums of Rotisserie Nim positions against a full search.
+     */
+    public static void main(String[] args) {
+        NimberCalculator calculator = new NimberCalculator();
+        RotisserieNim[] positions = new RotisserieNim[] {
+            new RotisserieNim(new int[] {3, 5, 7}),
+            new RotisserieNim(new int[] {4, 4}),
+            new RotisserieNim(new int[] {2, 3}),
+            new RotisserieNim(new int[] {2})
+        };
+        for (RotisserieNim position : positions) {
+            System.out.println("*" + calculator.getNimber(position) + "  " + position);
+        }
+        GameSum sum = new GameSum(positions);
+        long start = System.nanoTime();
+        int nimber = calculator.getNimber(sum);
+        long nimberTime = System.nanoTime() - start;
+        System.out.println("Sum: *" + nimber + " in " + nimberTime / 1000 + " microseconds.");
+        OutcomeSolver solver = new OutcomeSolver();
+        start = System.nanoTime();
+        boolean searched = solver.winsMovingFirst(sum, CombinatorialGame.LEFT);
+        long searchTime = System.nanoTime() - start;
+        System.out.println("Full search of the sum agrees: " + (searched == (nimber != 0)) + " (" + solver.getNodeCount() + " nodes in " + searchTime / 1000 + " microseconds).");
+        System.out.println(calculator);
+    }
+
+} //end of NimberCalculator
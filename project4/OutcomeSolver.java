@@ -0,0 +1,263 @@
+/**
+ * Finds the normal-play outcome class of positions of any CombinatorialGame: which player wins when Left moves first and
+ * which wins when Right moves first, assuming perfect play.  (Under normal play, the player who can't move loses.)
+ *
+ * Searches recursively over getOptions and remembers results in a bounded TranspositionTable, keyed on the position.  A
+ * single solver keeps its table between calls, so solving many related positions gets cheaper as it goes.  The recursion
+ * is as deep as the longest game from the position.
+ */
+
+import java.util.*;
+
+public class OutcomeSolver {
+
+    //constants
+
+    /**
+     * Outcome class of positions Left wins no matter who starts.
+     */
+    public static final int LEFT_WINS = 0;
+
+    /**
+     * Outcome class of positions Right wins no matter who starts.
+     */
+    public static final int RIGHT_WINS = 1;
+
+    /**
+     * Outcome class of positions the player moving first wins.
+     */
+    public static final int NEXT_PLAYER_WINS = 2;
+
+    /**
+     * Outcome class of positions the player moving second wins.
+     */
+    public static final int PREVIOUS_PLAYER_WINS = 3;
+
+    //default number of table entries
+    private static final int DEFAULT_CAPACITY = 1 << 20;
+
+    //each player's remoteness + 1 gets this many bits of a remoteness table value
+    private static final int REMOTENESS_BITS = 31;
+    private static final long REMOTENESS_MASK = (1L << REMOTENESS_BITS) - 1;
+
+    //instance variables
+
+    //results found so far.  See knownBit and winsBit for the format.
+    private TranspositionTable table;
+    
+    //remoteness found so far, created when first needed.  See remotenessField for the format.
+    private TranspositionTable remotenessTable;
+
+    //number of positions this has actually searched (as opposed to found in the table)
+    private long nodeCount;
+
+    /**
+     * Class constructor.
+     */
+    public OutcomeSolver() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param capacity  The number of positions the transposition table can hold.
+     */
+    public OutcomeSolver(int capacity) {
+        this(new ArrayTranspositionTable(capacity));
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param table  The transposition table to use.  May be shared with other solvers.
+     */
+    public OutcomeSolver(TranspositionTable table) {
+        this.table = table;
+    }
+
+    //public methods
+
+    /**
+     * Determines whether a player wins by moving first.
+     *
+     * @param position  The position to solve.
+     * @param player  The player who moves first (CombinatorialGame.LEFT or CombinatorialGame.RIGHT).
+     * @return  Whether player has a winning strategy when it's their turn in position.
+     */
+    public boolean winsMovingFirst(CombinatorialGame position, int player) {
+        long entry = this.table.get(position);
+        if (entry != TranspositionTable.MISSING && (entry & knownBit(player)) != 0) {
+            return (entry & winsBit(player)) != 0;
+        }
+        this.nodeCount++;
+        boolean wins = false;
+        int opponent = CombinatorialGame.otherPlayer(player);
+        for (Iterator<CombinatorialGame> options = position.getOptionIterator(player); options.hasNext(); ) {
+            if (!this.winsMovingFirst(options.next(), opponent)) {
+                wins = true;
+                break;
+            }
+        }
+        this.table.merge(position, knownBit(player) | (wins ? winsBit(player) : 0));
+        return wins;
+    }
+
+    /**
+     * Finds a winning move.
+     *
+     * @param position  The position to move from.
+     * @param player  The player moving.
+     * @return  An option of position the opponent loses moving first from, or null if there are none.
+     */
+    public CombinatorialGame getWinningOption(CombinatorialGame position, int player) {
+        int opponent = CombinatorialGame.otherPlayer(player);
+        for (Iterator<CombinatorialGame> options = position.getOptionIterator(player); options.hasNext(); ) {
+            CombinatorialGame option = options.next();
+            if (!this.winsMovingFirst(option, opponent)) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds how long the game lasts under perfect play, where the winner hurries and the loser stalls.  (This is the
+     * game's remoteness.)  Unlike winsMovingFirst, this has to look at every option, so it costs more.
+     *
+     * @param position  The position to solve.
+     * @param player  The player who moves first.
+     * @return  The number of moves left in the game.  Odd exactly when player wins.
+     */
+    public int getRemoteness(CombinatorialGame position, int player) {
+        if (this.remotenessTable == null) {
+            this.remotenessTable = new ArrayTranspositionTable(this.table.getCapacity());
+        }
+        long entry = this.remotenessTable.get(position);
+        if (entry != TranspositionTable.MISSING) {
+            long field = (entry >>> remotenessShift(player)) & REMOTENESS_MASK;
+            if (field != 0) {
+                return (int) (field - 1);
+            }
+        }
+        int opponent = CombinatorialGame.otherPlayer(player);
+        boolean wins = this.winsMovingFirst(position, player);
+        int best = wins ? Integer.MAX_VALUE : -1;
+        for (CombinatorialGame option : position.getOptions(player)) {
+            if (wins) {
+                if (!this.winsMovingFirst(option, opponent)) {
+                    best = Math.min(best, this.getRemoteness(option, opponent));
+                }
+            } else {
+                best = Math.max(best, this.getRemoteness(option, opponent));
+            }
+        }
+        int remoteness = best + 1;
+        this.remotenessTable.merge(position, ((long) remoteness + 1) << remotenessShift(player));
+        return remoteness;
+    }
+    
+    /**
+     * Finds the outcome class of a position.
+     *
+     * @param position  The position to solve.
+     * @return  One of LEFT_WINS, RIGHT_WINS, NEXT_PLAYER_WINS or PREVIOUS_PLAYER_WINS.
+     */
+    public int getOutcomeClass(CombinatorialGame position) {
+        return outcomeClassOf(this.winsMovingFirst(position, CombinatorialGame.LEFT), this.winsMovingFirst(position, CombinatorialGame.RIGHT));
+    }
+
+    /**
+     * Returns the number of positions searched so far.
+     *
+     * @return  The number of positions this had to search rather than find in the table.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Returns the transposition table, for its statistics.
+     *
+     * @return  The table this stores results in.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Forgets everything this has solved and resets the statistics.
+     */
+    public void clear() {
+        this.table.clear();
+        if (this.remotenessTable != null) {
+            this.remotenessTable.clear();
+        }
+        this.nodeCount = 0;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this, with its statistics.
+     */
+    public String toString() {
+        return "An outcome solver: " + this.nodeCount + " nodes searched, " + this.table.getProbes() + " table probes, hit rate " + String.format("%.1f%%", 100 * this.table.getHitRate()) + ", " + this.table.getOverwrites() + " overwrites in " + this.table.getCapacity() + " slots.";
+    }
+
+    /**
+     * Returns the name of an outcome class.
+     *
+     * @param outcomeClass  One of LEFT_WINS, RIGHT_WINS, NEXT_PLAYER_WINS or PREVIOUS_PLAYER_WINS.
+     * @return  The usual one-letter name: L, R, N or P.
+     */
+    public static String getOutcomeName(int outcomeClass) {
+        return "LRNP".substring(outcomeClass, outcomeClass + 1);
+    }
+
+    /**
+     * Combines who wins moving first into an outcome class.
+     *
+     * @param leftWinsFirst  Whether Left wins moving first.
+     * @param rightWinsFirst  Whether Right wins moving first.
+     * @return  One of LEFT_WINS, RIGHT_WINS, NEXT_PLAYER_WINS or PREVIOUS_PLAYER_WINS.
+     */
+    public static int outcomeClassOf(boolean leftWinsFirst, boolean rightWinsFirst) {
+        if (leftWinsFirst) {
+            return rightWinsFirst ? NEXT_PLAYER_WINS : LEFT_WINS;
+        } else {
+            return rightWinsFirst ? RIGHT_WINS : PREVIOUS_PLAYER_WINS;
+        }
+    }
+
+    /**
+     * Unit test for OutcomeSolver.  Solves a few Rotisserie Nim positions.
+     */
+    public static void main(String[] args) {
+        OutcomeSolver solver = new OutcomeSolver();
+        int[][] pileLists = new int[][] {{}, {1}, {2}, {1, 1}, {3, 5, 7}, {4, 4, 4, 4}, {6, 7, 8, 9, 10}};
+        for (int[] piles : pileLists) {
+            RotisserieNim position = new RotisserieNim(piles);
+            System.out.println(position + ": " + getOutcomeName(solver.getOutcomeClass(position)));
+        }
+        System.out.println(solver);
+    }
+
+    /* Private methods */
+
+    //bit set in table values once we know whether player wins moving first
+    private static long knownBit(int player) {
+        return 1L << (2 * player);
+    }
+
+    //bit set in table values if player wins moving first
+    private static long winsBit(int player) {
+        return 1L << (2 * player + 1);
+    }
+
+    //where player's remoteness + 1 is kept in remoteness table values (0 there means unknown)
+    private static int remotenessShift(int player) {
+        return REMOTENESS_BITS * player;
+    }
+
+} //end of OutcomeSolver
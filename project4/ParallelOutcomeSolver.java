@@ -0,0 +1,315 @@
+/**
+ * A fork-join solver for the same questions OutcomeSolver answers, separate from it but storing results in the same table
+ * format, so the two can share a thread safe TranspositionTable.
+ *
+ * Near the root (down to the split depth), every option of a position is searched as its own subtask.  Once one of them
+ * turns out to be a loss for the opponent, the position is won and its remaining subtasks give up.  Below the split depth,
+ * each subtask searches sequentially.  All workers share one ConcurrentTranspositionTable.
+ */
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParallelOutcomeSolver {
+
+    //constants
+
+    //default number of table entries
+    private static final int DEFAULT_CAPACITY = 1 << 22;
+
+    //default number of levels that get split into subtasks
+    private static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    //thrown through a sequential search once its result is no longer needed.  Shared, so it has no stack trace.
+    private static final RuntimeException SEARCH_ABANDONED = new RuntimeException("Search abandoned", null, false, false) {};
+
+    //instance variables
+
+    //workers
+    private ForkJoinPool pool;
+
+    //results shared between all workers, in OutcomeSolver's format
+    private TranspositionTable table;
+
+    //number of levels below the root that are split into subtasks
+    private int splitDepth;
+
+    //number of positions searched
+    private LongAdder nodeCount = new LongAdder();
+
+    //number of subtasks that gave up because a sibling had already won
+    private LongAdder abandonedCount = new LongAdder();
+
+    /**
+     * Class constructor.  Uses one thread per available processor.
+     */
+    public ParallelOutcomeSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param numThreads  The number of worker threads.
+     */
+    public ParallelOutcomeSolver(int numThreads) {
+        this(numThreads, new ConcurrentTranspositionTable(DEFAULT_CAPACITY), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param numThreads  The number of worker threads.
+     * @param table  The table to share between workers.  Must be thread safe.
+     * @param splitDepth  How many levels below the root get a subtask per option.  0 searches sequentially.
+     */
+    public ParallelOutcomeSolver(int numThreads, TranspositionTable table, int splitDepth) {
+        this.pool = new ForkJoinPool(numThreads);
+        this.table = table;
+        this.splitDepth = splitDepth;
+    }
+
+    //public methods
+
+    /**
+     * Determines whether a player wins by moving first.
+     *
+     * @param position  The position to solve.
+     * @param player  The player who moves first (CombinatorialGame.LEFT or CombinatorialGame.RIGHT).
+     * @return  Whether player has a winning strategy when it's their turn in position.
+     */
+    public boolean winsMovingFirst(CombinatorialGame position, int player) {
+        return this.pool.invoke(new SearchTask(position, player, 0, null));
+    }
+
+    /**
+     * Finds the outcome class of a position.
+     *
+     * @param position  The position to solve.
+     * @return  One of OutcomeSolver's LEFT_WINS, RIGHT_WINS, NEXT_PLAYER_WINS or PREVIOUS_PLAYER_WINS.
+     */
+    public int getOutcomeClass(CombinatorialGame position) {
+        return OutcomeSolver.outcomeClassOf(this.winsMovingFirst(position, CombinatorialGame.LEFT), this.winsMovingFirst(position, CombinatorialGame.RIGHT));
+    }
+
+    /**
+     * Returns the number of positions searched so far.
+     *
+     * @return  The number of positions searched rather than found in the table.
+     */
+    public long getNodeCount() {
+        return this.nodeCount.sum();
+    }
+
+    /**
+     * Returns the number of subtasks that stopped early because a sibling already won their parent.
+     *
+     * @return  The number of abandoned subtasks.
+     */
+    public long getAbandonedCount() {
+        return this.abandonedCount.sum();
+    }
+
+    /**
+     * Returns the shared transposition table, for its statistics.
+     *
+     * @return  The table the workers store results in.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return  The parallelism of the pool.
+     */
+    public int getNumThreads() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Stops the worker threads.  This can't be used afterwards.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this, with its statistics.
+     */
+    public String toString() {
+        return "A parallel outcome solver with " + this.getNumThreads() + " threads: " + this.getNodeCount() + " nodes searched, " + this.getAbandonedCount() + " subtasks abandoned, hit rate " + String.format("%.1f%%", 100 * this.table.getHitRate()) + ".";
+    }
+
+    /**
+     * Reports the speedup over OutcomeSolver as the number of threads grows.
+     *
+     * @param args  Optional pile sizes of the Rotisserie Nim position to solve.
+     */
+    public static void main(String[] args) {
+        int[] piles = new int[] {10, 11, 9, 12, 10, 8, 11, 10};
+        if (args.length > 0) {
+            piles = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                piles[i] = Integer.parseInt(args[i]);
+            }
+        }
+        RotisserieNim position = new RotisserieNim(piles);
+        System.out.println("Solving " + position);
+
+        OutcomeSolver sequential = new OutcomeSolver(DEFAULT_CAPACITY);
+        long start = System.nanoTime();
+        boolean expected = sequential.winsMovingFirst(position, CombinatorialGame.LEFT);
+        long sequentialTime = System.nanoTime() - start;
+        System.out.println("Sequential: " + (expected ? "first player wins" : "second player wins") + " in " + sequentialTime / 1000000 + " ms.  " + sequential);
+
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+            ParallelOutcomeSolver solver = new ParallelOutcomeSolver(numThreads);
+            start = System.nanoTime();
+            boolean result = solver.winsMovingFirst(position, CombinatorialGame.LEFT);
+            long time = System.nanoTime() - start;
+            System.out.println(String.format("%2d threads: %s in %d ms, speedup %.2f.  ", numThreads, (result == expected ? "agrees" : "DISAGREES"), time / 1000000, ((double) sequentialTime) / time) + solver);
+            solver.shutdown();
+        }
+    }
+
+    /* Private methods */
+
+    //sequential search for the bottom of the tree.  Throws SEARCH_ABANDONED once cancelled, without caching anything.
+    //A null cancellation (a root searched sequentially) is never cancelled.
+    private boolean searchSequentially(CombinatorialGame position, int player, Cancellation cancellation) {
+        long entry = this.table.get(position);
+        if (entry != TranspositionTable.MISSING && (entry & knownBit(player)) != 0) {
+            return (entry & winsBit(player)) != 0;
+        }
+        if (cancellation != null && cancellation.isCancelled()) {
+            throw SEARCH_ABANDONED;
+        }
+        this.nodeCount.increment();
+        boolean wins = false;
+        int opponent = CombinatorialGame.otherPlayer(player);
+        for (Iterator<CombinatorialGame> options = position.getOptionIterator(player); options.hasNext(); ) {
+            if (!this.searchSequentially(options.next(), opponent, cancellation)) {
+                wins = true;
+                break;
+            }
+        }
+        this.table.merge(position, knownBit(player) | (wins ? winsBit(player) : 0));
+        return wins;
+    }
+
+    //bit set in table values once we know whether player wins moving first (same format as OutcomeSolver)
+    private static long knownBit(int player) {
+        return 1L << (2 * player);
+    }
+
+    //bit set in table values if player wins moving first
+    private static long winsBit(int player) {
+        return 1L << (2 * player + 1);
+    }
+
+    //set once the position a group of sibling subtasks was searching is decided.  Linked to the parent position's.
+    private static final class Cancellation {
+
+        //whether this group can stop
+        private volatile boolean cancelled;
+
+        //cancellation of the parent position's group, or null at the root
+        private final Cancellation parent;
+
+        private Cancellation(Cancellation parent) {
+            this.parent = parent;
+        }
+
+        //whether this or any ancestor is cancelled
+        private boolean isCancelled() {
+            for (Cancellation link = this; link != null; link = link.parent) {
+                if (link.cancelled) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    //decides whether player wins moving first from position.  Returns null if cancelled before finishing.
+    private class SearchTask extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CombinatorialGame position;
+        private final int player;
+        private final int depth;
+
+        //cancellation shared with the sibling tasks (null for the root)
+        private final Cancellation siblings;
+
+        private SearchTask(CombinatorialGame position, int player, int depth, Cancellation siblings) {
+            this.position = position;
+            this.player = player;
+            this.depth = depth;
+            this.siblings = siblings;
+        }
+
+        //@override
+        protected Boolean compute() {
+            Boolean wins = this.search();
+            if (wins == null) {
+                abandonedCount.increment();
+            } else if (!wins && this.siblings != null) {
+                //the opponent loses here, so our parent is won: our siblings can stop
+                this.siblings.cancelled = true;
+            }
+            return wins;
+        }
+
+        private Boolean search() {
+            if (this.siblings != null && this.siblings.isCancelled()) {
+                return null;
+            }
+            if (this.depth >= splitDepth) {
+                try {
+                    return searchSequentially(this.position, this.player, this.siblings);
+                } catch (RuntimeException e) {
+                    if (e == SEARCH_ABANDONED) {
+                        return null;
+                    }
+                    throw e;
+                }
+            }
+            long entry = table.get(this.position);
+            if (entry != TranspositionTable.MISSING && (entry & knownBit(this.player)) != 0) {
+                return (entry & winsBit(this.player)) != 0;
+            }
+            nodeCount.increment();
+            Cancellation children = new Cancellation(this.siblings);
+            int opponent = CombinatorialGame.otherPlayer(this.player);
+            List<SearchTask> subtasks = new ArrayList<SearchTask>();
+            for (CombinatorialGame option : this.position.getOptions(this.player)) {
+                SearchTask subtask = new SearchTask(option, opponent, this.depth + 1, children);
+                subtask.fork();
+                subtasks.add(subtask);
+            }
+            for (SearchTask subtask : subtasks) {
+                if (children.cancelled) {
+                    break;
+                }
+                subtask.join();
+            }
+            //children is only cancelled by itself when one of them won
+            boolean wins = children.cancelled;
+            if (this.siblings != null && this.siblings.isCancelled()) {
+                return null;
+            }
+            table.merge(this.position, knownBit(this.player) | (wins ? winsBit(this.player) : 0));
+            return wins;
+        }
+    }
+
+} //end of ParallelOutcomeSolver
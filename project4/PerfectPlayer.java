@@ -0,0 +1,98 @@
+/**
+ * A Player that plays perfectly, using an OutcomeSolver.  It takes a winning option whenever there is one.  From a lost
+ * position it makes the game last as long as possible, to give the opponent every chance to go wrong.
+ *
+ * The solver (and so its cache) lives as long as the player, so when the same player plays a whole Referee.gauntlet,
+ * positions seen in earlier games are answered straight from the table.
+ */
+
+import java.lang.*;
+import java.io.*;
+import java.util.*;
+
+public class PerfectPlayer<G extends CombinatorialGame> extends Player<G> {
+
+    //instance variables
+
+    //remembers every position this has solved
+    private OutcomeSolver solver;
+
+    /**
+     * Class constructor.
+     */
+    public PerfectPlayer() {
+        this(new OutcomeSolver());
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param solver  The solver to use.  May be shared with other players, as long as they don't move at the same time.
+     */
+    public PerfectPlayer(OutcomeSolver solver) {
+        this.solver = solver;
+    }
+
+    //public methods
+
+    /**
+     * Chooses an option to move to.
+     *
+     * @param position  The position to choose an option of.
+     * @param playerId  The index of the current player.  (Either CombinatorialGame.LEFT or CombinatorialGame.RIGHT.)
+     * @return  A winning option if there is one, otherwise the option that puts off losing the longest.
+     */
+    @SuppressWarnings("unchecked")
+    public G getMove(G position, int playerId) {
+        CombinatorialGame winningOption = this.solver.getWinningOption(position, playerId);
+        if (winningOption != null) {
+            return (G) winningOption;
+        }
+        int opponent = CombinatorialGame.otherPlayer(playerId);
+        CombinatorialGame longestOption = null;
+        int longestRemoteness = -1;
+        for (CombinatorialGame option : position.getOptions(playerId)) {
+            int remoteness = this.solver.getRemoteness(option, opponent);
+            if (remoteness > longestRemoteness) {
+                longestRemoteness = remoteness;
+                longestOption = option;
+            }
+        }
+        if (longestOption == null) {
+            throw new NoSuchElementException("No moves of " + position + " exist for " + position.getPlayerName(playerId) + ".  Tried to call Player.getMove()!");
+        }
+        return (G) longestOption;
+    }
+
+    /**
+     * Returns the solver, for its statistics.
+     *
+     * @return  The solver this uses.
+     */
+    public OutcomeSolver getSolver() {
+        return this.solver;
+    }
+
+    /**
+     * Returns a string version of this.
+     *
+     * @return  A string representation of this player.
+     */
+    public String toString() {
+        return "Perfect Player";
+    }
+
+    /**
+     * Unit test for PerfectPlayer.  Plays random players from random Rotisserie Nim positions.
+     */
+    public static void main(String[] args) {
+        PerfectPlayer<RotisserieNim> perfect = new PerfectPlayer<RotisserieNim>();
+        Referee<RotisserieNim> referee = new Referee<RotisserieNim>(perfect, new RandomPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(6, 8));
+        for (int round = 1; round <= 3; round++) {
+            long start = System.nanoTime();
+            referee.gauntlet(2000);
+            System.out.println("Round " + round + " took " + (System.nanoTime() - start) / 1000000 + " ms.  " + perfect.getSolver());
+        }
+    }
+
+} //end of PerfectPlayer
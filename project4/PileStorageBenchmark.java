@@ -0,0 +1,141 @@
+/**
+ * Compares the heap and garbage collector cost of storing Rotisserie Nim piles as boxed Integers in a PureQueue against
+ * RotisserieNim's own storage: an int array shared between a position and its options, plus shared links for the piles
+ * moved to the end.
+ *
+ * Both variants play the same silent gauntlet between random players.  Run with:
+ *     java PileStorageBenchmark [numGames] [numPiles] [maxPileSize]
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+public class PileStorageBenchmark {
+
+    //number of gauntlets thrown away before measuring, so the JIT has settled
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args  Optional number of games, number of piles and maximum pile size.
+     */
+    public static void main(String[] args) {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        final int numPiles = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int maxPileSize = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+
+        PositionFactory<RotisserieNim> intFactory = new PositionFactory<RotisserieNim>() {
+            private Random random = new Random(42);
+            public RotisserieNim getPosition() { return new RotisserieNim(randomPiles(random, numPiles, maxPileSize)); }
+        };
+        PositionFactory<BoxedRotisserieNim> boxedFactory = new PositionFactory<BoxedRotisserieNim>() {
+            private Random random = new Random(42);
+            public BoxedRotisserieNim getPosition() { return new BoxedRotisserieNim(randomPiles(random, numPiles, maxPileSize)); }
+        };
+        Referee<RotisserieNim> intReferee = new Referee<RotisserieNim>(new RandomPlayer<RotisserieNim>(), new RandomPlayer<RotisserieNim>(), intFactory);
+        Referee<BoxedRotisserieNim> boxedReferee = new Referee<BoxedRotisserieNim>(new RandomPlayer<BoxedRotisserieNim>(), new RandomPlayer<BoxedRotisserieNim>(), boxedFactory);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            measure(boxedReferee, numGames / 10);
+            measure(intReferee, numGames / 10);
+        }
+        System.out.println("PureQueue<Integer> piles:   " + measure(boxedReferee, numGames));
+        System.out.println("Shared array + link piles: " + measure(intReferee, numGames));
+    }
+
+    /* Private methods */
+
+    //plays a silent gauntlet and describes the allocation and collections it caused
+    private static String measure(Referee<?> referee, int numGames) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] gcBefore = gcTotals();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        referee.gauntlet(numGames);
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        long[] gcAfter = gcTotals();
+        return String.format("%,d games in %,d ms, %,d MB allocated (%,d bytes/game), %d collections taking %d ms",
+                numGames, elapsed / 1000000, bytes >> 20, bytes / numGames, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+    }
+
+    //total collection count and time over all collectors
+    private static long[] gcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, collector.getCollectionCount());
+            totals[1] += Math.max(0, collector.getCollectionTime());
+        }
+        return totals;
+    }
+
+    //the same distribution of piles RotisserieFactory produces
+    private static int[] randomPiles(Random random, int numPiles, int maxPileSize) {
+        int[] piles = new int[numPiles];
+        int numNonEmpty = 0;
+        for (int i = 0; i < numPiles; i++) {
+            int pileSize = random.nextInt(maxPileSize + 1);
+            if (pileSize > 0) {
+                piles[numNonEmpty++] = pileSize;
+            }
+        }
+        return Arrays.copyOf(piles, numNonEmpty);
+    }
+
+    /**
+     * The boxed pile representation RotisserieNim started with, kept here as the baseline.
+     */
+    private static class BoxedRotisserieNim extends CombinatorialGame {
+
+        //the piles in this.
+        private PureQueue<Integer> piles;
+
+        public BoxedRotisserieNim(int[] piles) {
+            this.piles = new PureQueue<Integer>();
+            for (int pileSize : piles) {
+                //a new Integer every time, as before; Integer.valueOf would cache small piles and hide the boxing cost
+                @SuppressWarnings("removal") Integer pile = new Integer(pileSize);
+                this.piles.add(pile);
+            }
+        }
+
+        public BoxedRotisserieNim(PureQueue<Integer> piles) {
+            this.piles = piles.copy();
+        }
+
+        public BoxedRotisserieNim clone() {
+            return new BoxedRotisserieNim(this.piles);
+        }
+
+        public boolean equals(CombinatorialGame game) {
+            return (game instanceof BoxedRotisserieNim) && this.piles.equals(((BoxedRotisserieNim) game).piles);
+        }
+
+        public Collection<CombinatorialGame> getOptions(int player) {
+            Collection<CombinatorialGame> options = new Vector<CombinatorialGame>();
+            if (this.piles.isEmpty()) {
+                return options;
+            }
+            int firstPileSize = this.piles.element().intValue();
+            BoxedRotisserieNim takeAll = this.clone();
+            takeAll.piles.remove();
+            options.add(takeAll);
+            for (int optionPileSize = 1; optionPileSize < firstPileSize; optionPileSize++) {
+                BoxedRotisserieNim newOption = takeAll.clone();
+                //a new Integer every time, as before; Integer.valueOf would cache small piles and hide the boxing cost
+                @SuppressWarnings("removal") Integer pile = new Integer(optionPileSize);
+                newOption.piles.add(pile);
+                options.add(newOption);
+            }
+            return options;
+        }
+
+        public String toString() {
+            return "A boxed Rotisserie Nim position: " + this.piles;
+        }
+    }
+
+}  //end of PileStorageBenchmark
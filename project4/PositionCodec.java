@@ -0,0 +1,71 @@
+/**
+ * Converts the positions of a ruleset to and from bytes, for game records and other files.
+ *
+ * A move is stored as the index of the chosen option in the order getOptionIterator produces them, so it usually fits in a
+ * single byte.  Rulesets that can find an option's index without generating the options should override encodeMove and
+ * decodeMove.
+ */
+
+import java.util.*;
+
+public interface PositionCodec<Game extends CombinatorialGame> {
+
+    //public methods
+
+    /**
+     * Encodes a position.
+     *
+     * @param position  The position to encode.
+     * @return  The encoded position.
+     */
+    public byte[] encode(Game position);
+
+    /**
+     * Decodes a position encoded by encode.
+     *
+     * @param encoded  An encoded position.
+     * @return  The position encoded in encoded.
+     */
+    public Game decode(byte[] encoded);
+
+    /**
+     * Encodes a move as the index of the option moved to.
+     *
+     * @param position  The position moved from.
+     * @param playerId  The player who moved.
+     * @param option  The option moved to.
+     * @return  The index of option in position's options for playerId.
+     * @throws IllegalArgumentException  If option isn't an option of position.
+     */
+    public default int encodeMove(Game position, int playerId, Game option) {
+        int index = 0;
+        for (Iterator<CombinatorialGame> options = position.getOptionIterator(playerId); options.hasNext(); index++) {
+            if (option.equals(options.next())) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException(option + " is not an option of " + position);
+    }
+
+    /**
+     * Decodes a move encoded by encodeMove.
+     *
+     * @param position  The position moved from.
+     * @param playerId  The player who moved.
+     * @param moveIndex  The encoded move.
+     * @return  The option moved to.
+     * @throws IllegalArgumentException  If position has fewer than moveIndex + 1 options.
+     */
+    @SuppressWarnings("unchecked")
+    public default Game decodeMove(Game position, int playerId, int moveIndex) {
+        Iterator<CombinatorialGame> options = position.getOptionIterator(playerId);
+        for (int index = 0; options.hasNext(); index++) {
+            CombinatorialGame option = options.next();
+            if (index == moveIndex) {
+                return (Game) option;
+            }
+        }
+        throw new IllegalArgumentException(position + " has no option " + moveIndex);
+    }
+
+} //end of PositionCodec<Game extends CombinatorialGame>
@@ -0,0 +1,25 @@
+/**
+ * Guesses how good a position is, for search players that can't search to the end of the game.
+ */
+
+//import java.xxxxx.*;
+public interface PositionEvaluator<Game extends CombinatorialGame> {
+
+    /**
+     * The largest score evaluate may return.  Scores of won and lost positions are bigger than this, so a guess is never
+     * mistaken for a certainty.
+     */
+    public static final int MAX_SCORE = 100000;
+
+    //public methods
+
+    /**
+     * Scores a position for the player whose turn it is.  Only called on positions where that player has an option.
+     *
+     * @param position  The position to score.
+     * @param playerToMove  The player whose turn it is.
+     * @return  A score between -MAX_SCORE and MAX_SCORE.  Higher is better for playerToMove; 0 means no idea.
+     */
+    public int evaluate(Game position, int playerToMove);
+
+} //end of PositionEvaluator<Game extends CombinatorialGame>
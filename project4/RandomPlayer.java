@@ -0,0 +1,39 @@
+/**
+ * A Player that moves to a random option.  Every option is equally likely.
+ */
+
+import java.lang.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RandomPlayer<G extends CombinatorialGame> extends Player<G> {
+
+    //public methods
+
+    /**
+     * Chooses an option to move to.  Uses CombinatorialGame.randomOption, so rulesets that can build a single option
+     * don't build the rest.  Each thread has its own random generator, so one player can play several games at once.
+     *
+     * @param position  The position to choose an option of.
+     * @param playerId  The index of the current player.  (Either CombinatorialGame.LEFT or CombinatorialGame.RIGHT.)
+     * @return  A random option of position.
+     */
+    @SuppressWarnings("unchecked")
+    public G getMove(G position, int playerId) {
+        if (!position.playerHasAnOption(playerId)) {
+            throw new NoSuchElementException("No moves of " + position + " exist for " + position.getPlayerName(playerId) + ".  Tried to call Player.getMove()!");
+        }
+        return (G) position.randomOption(playerId, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Returns a string version of this.
+     *
+     * @return  A string representation of this player.
+     */
+    public String toString() {
+        return "Random Al";
+    }
+
+} //end of RandomPlayer.java
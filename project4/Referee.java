@@ -8,6 +8,17 @@ import java.lang.*;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.text.NumberFormat;
 
 public class Referee<Game extends CombinatorialGame> implements Callable<Integer> {
@@ -35,25 +46,251 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     //number of attempts each player gets to choose a proper move
     private int numMoveAttempts;
     
-    //output controller for this.
+    //milliseconds a player may take over one move (0 for no limit)
+    private long moveTimeLimit;
+    
+    //milliseconds each player may take over all their moves in one game (0 for no limit)
+    private long gameTimeLimit;
+    
+    //whether running out of time forfeits the game (otherwise, a random move is chosen)
+    private boolean timeoutForfeits;
+    
+    //whether gauntlets print their opening line and results, even when they don't print the games
+    private boolean reportsGauntlets = true;
+    
+    //nanoseconds each player has left on their game clock
+    private long[] clockRemaining = new long[2];
+    
+    //for each player, counted down when the getMove call this stopped waiting for returns, or null if there isn't one
+    private CountDownLatch[] abandonedMoves = new CountDownLatch[2];
+    
+    //output controller for this.  Subscribed to this while printing is on.
     private Display display;
     
-    //display controller.  Implements State Pattern.
-    private class Display {
+    //everything listening to the games this runs
+    private MatchListener<Game>[] listeners;
+    
+    //where this records measurements, or null if it doesn't
+    private RefereeMetrics metrics;
+    
+    //runs players' getMove calls when there is a time limit.  Daemon threads, so a player that never returns can't keep the program running.
+    private static ExecutorService moveThreads;
+    
+    //display controller.  Prints the games to the console, as a MatchListener.
+    private class Display implements MatchListener<Game> {
     
         //whether this prints to the screen
         private boolean prints;
+        
+        //lines waiting for their turn to print, in order
+        private ArrayDeque<PendingLine> pending = new ArrayDeque<PendingLine>();
+        
+        //System.nanoTime() before which the next line may not print
+        private long releaseTime = System.nanoTime();
+        
+        //prints pending lines once they are due, so the game thread never has to sleep.  Created when first needed; its thread stops when idle.
+        private ScheduledThreadPoolExecutor printer;
     
         //constructor
         public Display(boolean prints) {
             this.prints = prints;
         }
         
-        //print out
-        public void println(String string) {
-            if (this.prints) {
+        //turns printing on or off
+        public synchronized void setPrints(boolean prints) {
+            this.prints = prints;
+        }
+        
+        public void gauntletStarted(Referee<Game> referee, int numGames, int numThreads) {
+            if (numThreads > 1) {
+                this.println("Beginning the competition!  There will be " + numGames + " games played on " + numThreads + " threads!");
+            } else {
+                this.println("Beginning the competition!  There will be " + numGames + " games played!");
+            }
+        }
+        
+        public void gameStarted(Referee<Game> referee, Game position, int startingPlayer) {
+            this.println("Let's get ready to rumble!");
+            for (int i = 0; i < 2; i++) {
+                this.println("In this corner ... playing as " + referee.getPlayerRole(i) + " ... " + referee.getPlayerName(i) + "!");
+            } 
+            this.println("Starting board:\n" + position);
+            this.println(referee.getPlayerName(startingPlayer) + " will start us off.  Begin!");
+            this.pause(referee.getDelay());
+        }
+        
+        public void moveMade(Referee<Game> referee, int playerId, Game position, Game option) {
+            this.println(referee.getPlayerName(playerId) + " (" + referee.getPlayerRole(playerId) + ") moved to \n" + option);
+            this.pause(referee.getDelay());
+        }
+        
+        public void illegalMove(Referee<Game> referee, int playerId, Game position, Game option) {
+            this.println("Player " + referee.getPlayerName(playerId) + " (" + referee.getPlayerRole(playerId) + ") tried to move from \n" + position + "\n  to  \n" + option + ", which is not a legal option.  They forfeit the game!");
+        }
+        
+        public void moveFailed(Referee<Game> referee, int playerId, Game position, Exception problem, int attemptsRemaining) {
+            if (problem instanceof TimeoutException) {
+                this.println(referee.getPlayerName(playerId) + " (" + referee.getPlayerRole(playerId) + ") ran out of time.");
+                return;
+            }
+            this.println("We experienced a problem!  A player is telling us that there is no option for " + referee.getPlayerRole(playerId) + " from position " + position + "\nThat can't be right!  Something fishy is going on here!");
+            this.println(referee.getPlayerName(playerId) + " has " + attemptsRemaining + " tries left.");
+            this.pause(referee.getDelay());
+        }
+        
+        public void randomMoveChosen(Referee<Game> referee, int playerId, Game position) {
+            this.println("Choosing a random move for " + referee.getPlayerName(playerId) + " instead!");
+        }
+        
+        public void forfeited(Referee<Game> referee, int playerId, Game position, Exception cause) {
+            int errorLine = -1;
+            String className = "";
+            StackTraceElement[] stackFrames = cause.getStackTrace();
+            for (StackTraceElement frame : stackFrames) {
+                errorLine = frame.getLineNumber();
+                className = frame.getClassName();
+                if (errorLine != -1) break;
+            }
+            this.println("A problem occurred (" + cause.toString() + ") in " + className + " on line " + errorLine + " while " + referee.getPlayerName(playerId) + " was taking their turn.  The other player wins by default!");
+        }
+        
+        public void gameEnded(Referee<Game> referee, Game position, int winningPlayer, boolean byForfeit) {
+            if (!byForfeit) {
+                this.println("There are no options for " + referee.getPlayerName(1 - winningPlayer) + "!  " + referee.getPlayerName(winningPlayer) + " wins!\nCongratulations to " + referee.getPlayerName(winningPlayer) + "!");
+            }
+        }
+        
+        public void gauntletEnded(Referee<Game> referee, int numGames, int[] gamesWon) {
+            this.println("Competition complete!  Games won:");
+            NumberFormat percentFormat = NumberFormat.getPercentInstance();
+            for (int i = 0; i < 2; i ++) {
+                this.println("    " + referee.getPlayerName(i) + " (" + referee.getPlayerRole(i) + ") : " + gamesWon[i] + " (" + percentFormat.format(((double) gamesWon[i]) / numGames) + ")  forfeits: " + referee.getForfeits(i));
+            } 
+        }
+        
+        //print out, once every earlier line is out and any pause has passed
+        public synchronized void println(String string) {
+            if (!this.prints) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (this.pending.isEmpty() && this.releaseTime <= now) {
                 System.out.println(string);
+                return;
+            }
+            this.pending.add(new PendingLine(Math.max(this.releaseTime, now), string));
+            if (this.pending.size() == 1) {
+                this.scheduleFlush(this.pending.peek().dueTime - now);
+            }
+        }
+        
+        //holds back the lines printed after this for a while.  Returns immediately.
+        public synchronized void pause(long millis) {
+            if (this.prints && millis > 0) {
+                this.releaseTime = Math.max(this.releaseTime, System.nanoTime()) + TimeUnit.MILLISECONDS.toNanos(millis);
+            }
+        }
+        
+        //prints every line that is due, then waits for the next one
+        private synchronized void flush() {
+            long now = System.nanoTime();
+            while (!this.pending.isEmpty() && this.pending.peek().dueTime <= now) {
+                System.out.println(this.pending.poll().line);
+            }
+            if (!this.pending.isEmpty()) {
+                this.scheduleFlush(this.pending.peek().dueTime - now);
+            }
+        }
+        
+        private void scheduleFlush(long delayNanos) {
+            if (this.printer == null) {
+                this.printer = new ScheduledThreadPoolExecutor(1);
+                this.printer.setKeepAliveTime(1, TimeUnit.SECONDS);
+                this.printer.allowCoreThreadTimeOut(true);
+            }
+            this.printer.schedule(new Runnable() {
+                public void run() {
+                    flush();
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    //a line of output and when it may be printed
+    private static class PendingLine {
+        private final long dueTime;
+        private final String line;
+        
+        private PendingLine(long dueTime, String line) {
+            this.dueTime = dueTime;
+            this.line = line;
+        }
+    }
+    
+    //what a player who chose an illegal option throws.  The message, which prints both positions, is only built if someone asks for it.
+    private static class IllegalMoveException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        private final String playerRole;
+        private final CombinatorialGame position;
+        private final CombinatorialGame option;
+        
+        private IllegalMoveException(String playerRole, CombinatorialGame position, CombinatorialGame option) {
+            this.playerRole = playerRole;
+            this.position = position;
+            this.option = option;
+        }
+        
+        public String getMessage() {
+            return this.playerRole + " tried to move from \n" + this.position + "\n  to  \n" + this.option + ", which is not a legal option.  They forfeit the game!";
+        }
+    }
+    
+    //a timed getMove call.  If the referee stops waiting for it, abandon tells whether it must wait for getMove to return.
+    private static class MoveCall<Game extends CombinatorialGame> implements Callable<Game> {
+        private final Player<Game> player;
+        private final Game position;
+        private final int playerId;
+        
+        //set by whichever happens first: the call starting, or the referee abandoning it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        
+        //counted down when getMove returns
+        private final CountDownLatch finished = new CountDownLatch(1);
+        
+        private MoveCall(Player<Game> player, Game position, int playerId) {
+            this.player = player;
+            this.position = position;
+            this.playerId = playerId;
+        }
+        
+        public Game call() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                //abandoned before it started
+                return null;
             }
+            try {
+                return this.player.getMove(this.position, this.playerId);
+            } finally {
+                this.finished.countDown();
+            }
+        }
+        
+        //returns a latch to wait for if getMove is already running, or null if it never will
+        private CountDownLatch abandon() {
+            return this.claimed.compareAndSet(false, true) ? null : this.finished;
+        }
+    }
+    
+    //carries what the player to move did wrong out of getNextMove, so requestMoves can tell it from a failing listener
+    private static class ForfeitException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        private final RuntimeException fault;
+        
+        private ForfeitException(RuntimeException fault) {
+            super(fault);
+            this.fault = fault;
         }
     }
     
@@ -67,10 +304,28 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
         this.forfeitsByPlayer = new ArrayList<Integer>();
         this.forfeitsByPlayer.add(0);
         this.forfeitsByPlayer.add(0);
-        this.setDelay(3000);
+        this.listeners = newListenerArray(0);
+        this.display = new Display(false);
         this.setPrint(true);
+        this.setDelay(3000);
         this.setAttempts(1);
     }
+    
+    //copy constructor, for the workers of a parallel gauntlet.  Shares the players and the start state generator.
+    private Referee(Referee<Game> other) {
+        this(other.players.get(0), other.players.get(1));
+        this.startStateGenerator = other.startStateGenerator;
+        this.setAttempts(other.numMoveAttempts);
+        this.setMoveTimeLimit(other.moveTimeLimit);
+        this.setGameTimeLimit(other.gameTimeLimit);
+        this.setTimeoutForfeits(other.timeoutForfeits);
+        this.setMetrics(other.metrics);
+        for (MatchListener<Game> listener : other.listeners) {
+            if (listener != other.display) {
+                this.addMatchListener(listener);
+            }
+        }
+    }
 
     /**
      * Class constructor.
@@ -109,7 +364,8 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     }
     
     /**
-     * Sets the delay between turns.
+     * Sets the delay between turns.  The delay only paces the output: the game itself doesn't wait, and nothing is
+     * delayed while printing is off.
      *
      * @param delay  The millisecond delay between turns.
      */
@@ -136,12 +392,117 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     }
     
     /**
-     * Sets whether this prints output.
+     * Sets whether this prints output.  The console output is a MatchListener, so while printing is off, none of it is
+     * built.
      *
      * @param doesPrint  Whether this will print to System.out.
      */
     public void setPrint(boolean doesPrint) {
-        this.display = new Display(doesPrint);
+        this.display.setPrints(doesPrint);
+        if (doesPrint) {
+            this.addMatchListener(this.display);
+        } else {
+            this.removeMatchListener(this.display);
+        }
+    }
+    
+    /**
+     * Sets whether gauntlets print their opening line and results.  They do by default, even when they don't print the
+     * games; turning this off too makes a gauntlet completely silent.
+     *
+     * @param reports  Whether gauntlets print their opening line and results.
+     */
+    public void setReportsGauntlets(boolean reports) {
+        this.reportsGauntlets = reports;
+    }
+    
+    /**
+     * Sets where this records measurements of its games.  The workers of a parallel gauntlet share this's metrics.
+     *
+     * @param metrics  The metrics to add to, or null to stop measuring.
+     */
+    public void setMetrics(RefereeMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Gets the measurements of this's games.
+     *
+     * @return  The metrics set with setMetrics, or null.
+     */
+    public RefereeMetrics getMetrics() {
+        return this.metrics;
+    }
+    
+    /**
+     * Adds a listener to the games this runs.  Adding a listener that is already listening does nothing.
+     *
+     * An exception thrown by a listener is never blamed on a player: it stops the game and is thrown on to whoever asked
+     * for the game or gauntlet.
+     *
+     * A parallel gauntlet passes its listeners to each thread's Referee, so they must be safe to call from several
+     * threads at once.
+     *
+     * @param listener  The listener to add.
+     */
+    public void addMatchListener(MatchListener<Game> listener) {
+        for (MatchListener<Game> existing : this.listeners) {
+            if (existing == listener) {
+                return;
+            }
+        }
+        MatchListener<Game>[] moreListeners = newListenerArray(this.listeners.length + 1);
+        System.arraycopy(this.listeners, 0, moreListeners, 0, this.listeners.length);
+        moreListeners[this.listeners.length] = listener;
+        this.listeners = moreListeners;
+    }
+    
+    /**
+     * Removes a listener added with addMatchListener.
+     *
+     * @param listener  The listener to remove.
+     */
+    public void removeMatchListener(MatchListener<Game> listener) {
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] == listener) {
+                MatchListener<Game>[] fewerListeners = newListenerArray(this.listeners.length - 1);
+                System.arraycopy(this.listeners, 0, fewerListeners, 0, i);
+                System.arraycopy(this.listeners, i + 1, fewerListeners, i, fewerListeners.length - i);
+                this.listeners = fewerListeners;
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Sets how long a player may take over a single move.
+     *
+     * @param millis  The milliseconds allowed per move, or 0 for no limit.
+     */
+    public void setMoveTimeLimit(long millis) {
+        this.moveTimeLimit = millis;
+    }
+    
+    /**
+     * Sets how long each player may take over all of their moves in one game.
+     *
+     * @param millis  The milliseconds on each player's clock at the start of a game, or 0 for no limit.
+     */
+    public void setGameTimeLimit(long millis) {
+        this.gameTimeLimit = millis;
+    }
+    
+    /**
+     * Sets what happens when a player runs out of time.
+     *
+     * @param forfeits  True if the player forfeits the game; false to choose a random move for them instead.
+     *
+     * Either way, a player's getMove can't be stopped and keeps running after they run out of time.  This never asks a
+     * player for another move until it returns: waiting for it counts against their time, and if their time runs out
+     * first, they have run out of time again.
+     */
+    public void setTimeoutForfeits(boolean forfeits) {
+        this.timeoutForfeits = forfeits;
     }
     
     /**
@@ -193,51 +554,196 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
         return this.getPlayerRole(this.currentPlayer);
     }
     
+    /**
+     * Plays a single game.
+     *
+     * @param startingPlayer  The index of the player who moves first.
+     * @return  Index of the winning player.
+     */
+    public int playGame(int startingPlayer) {
+        return this.call(startingPlayer);
+    }
+    
+    /**
+     * Gets the number of games a player has forfeited.
+     *
+     * @param playerId  The index of the player.
+     * @return  The number of games playerId has lost by forfeit since the last gauntlet started.
+     */
+    public int getForfeits(int playerId) {
+        return this.forfeitsByPlayer.get(playerId);
+    }
+    
     //starts the game, with a specified initial player
     private int call(int startingPlayer) {
+        long startTime = (this.metrics == null) ? 0 : System.nanoTime();
         this.currentPlayer = startingPlayer;
         this.position = this.startStateGenerator.getPosition();
-        this.display.println("Let's get ready to rumble!");
-        for (int i = 0; i < 2; i++) {
-            this.display.println("In this corner ... playing as " + this.getPlayerRole(i) + " ... " + this.getPlayerName(i) + "!");
-        } 
-        this.display.println("Starting board:\n" + this.position);
-        this.display.println(this.getCurrentPlayerName() + " will start us off.  Begin!");
-        return this.requestMoves();
+        this.clockRemaining[0] = TimeUnit.MILLISECONDS.toNanos(this.gameTimeLimit);
+        this.clockRemaining[1] = TimeUnit.MILLISECONDS.toNanos(this.gameTimeLimit);
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.gameStarted(this, this.position, startingPlayer);
+        }
+        int winner = this.requestMoves();
+        if (this.metrics != null) {
+            this.metrics.recordGame(startTime, System.nanoTime());
+        }
+        return winner;
     }
     
-    //asks for a move from one person
+    //asks for a move from one person.  Throws ForfeitException if they forfeit.
     protected Game getNextMove() {
         Game option;
+        boolean legal;
         int attemptsRemaining = this.numMoveAttempts;
         while (attemptsRemaining > 0) {
             try {
-                option = this.players.get(this.currentPlayer).getMove((Game) this.position.clone(), this.currentPlayer);
-                if (this.position.hasOption(this.currentPlayer, option)) {
-                    return option;
-                } else {
-                    this.display.println("Player " + this.getCurrentPlayerName() + " (" + this.getCurrentPlayerRole() + ") tried to move from \n" + this.position + "\n  to  \n" + option + ", which is not a legal option.  They forfeit the game!");
-                    throw new RuntimeException(this.getCurrentPlayerRole() + " tried to move from \n" + this.position + "\n  to  \n" + option + ", which is not a legal option.  They forfeit the game!");
-                }
+                option = this.askForMove();
+                legal = this.isLegal(option);
             } catch (NoSuchElementException nsee) {
-                this.display.println("We experienced a problem!  A player is telling us that there is no option for " + this.getCurrentPlayerRole() + " from position " + this.position + "\nThat can't be right!  Something fishy is going on here!");
+                attemptsRemaining --;
+                for (MatchListener<Game> listener : this.listeners) {
+                    listener.moveFailed(this, this.currentPlayer, this.position, nsee, attemptsRemaining);
+                }
+                continue;
+            } catch (TimeoutException te) {
+                for (MatchListener<Game> listener : this.listeners) {
+                    listener.moveFailed(this, this.currentPlayer, this.position, te, 0);
+                }
+                break;
+            } catch (RuntimeException re) {
+                throw new ForfeitException(re);
             }
-            attemptsRemaining --;
-            this.display.println(this.getCurrentPlayerName() + " has " + attemptsRemaining + " tries left.");
-            try {
-                Thread.sleep(this.delay);
-            } catch (Exception e) {
-                this.display.println("Couldn't sleep!");
+            if (legal) {
+                return option;
+            }
+            if (this.metrics != null) {
+                this.metrics.recordIllegalMove(this.currentPlayer);
             }
+            for (MatchListener<Game> listener : this.listeners) {
+                listener.illegalMove(this, this.currentPlayer, this.position, option);
+            }
+            throw new ForfeitException(new IllegalMoveException(this.getCurrentPlayerRole(), this.position, option));
+        }
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.randomMoveChosen(this, this.currentPlayer, this.position);
         }
-        this.display.println("Choosing a random move for " + this.players.get(this.currentPlayer) + " instead!");
 
         //get a random option
-        Random randomGenerator = new Random();
-        Collection<Game> optionCollection = (Collection<Game>) this.position.getOptions(this.currentPlayer);
-        Object[] possibleOptions = optionCollection.toArray();
-        Object randomOption =  possibleOptions[randomGenerator.nextInt(possibleOptions.length)];
-        return (Game) randomOption;
+        if (this.metrics != null) {
+            this.metrics.recordRandomFallback(this.currentPlayer);
+        }
+        //options of a position are positions of the same ruleset
+        @SuppressWarnings("unchecked") Game randomOption = (Game) this.position.randomOption(this.currentPlayer, ThreadLocalRandom.current());
+        return randomOption;
+    }
+    
+    //gets a move from the current player, within the time limits.  Throws TimeoutException if they run out of time and timeouts don't forfeit.
+    private Game askForMove() throws TimeoutException {
+        final Player<Game> player = this.players.get(this.currentPlayer);
+        final Game positionCopy = (Game) this.position.clone();
+        final int playerId = this.currentPlayer;
+        if (this.moveTimeLimit <= 0 && this.gameTimeLimit <= 0) {
+            this.awaitAbandonedMove(playerId, Long.MAX_VALUE);
+            if (this.metrics == null) {
+                return player.getMove(positionCopy, playerId);
+            }
+            long start = System.nanoTime();
+            Game option = player.getMove(positionCopy, playerId);
+            this.metrics.recordMove(playerId, System.nanoTime() - start);
+            return option;
+        }
+        long timeAllowed = Long.MAX_VALUE;
+        if (this.moveTimeLimit > 0) {
+            timeAllowed = TimeUnit.MILLISECONDS.toNanos(this.moveTimeLimit);
+        }
+        if (this.gameTimeLimit > 0) {
+            timeAllowed = Math.min(timeAllowed, Math.max(0, this.clockRemaining[playerId]));
+        }
+        long start = System.nanoTime();
+        MoveCall<Game> call = new MoveCall<Game>(player, positionCopy, playerId);
+        Future<Game> move = null;
+        try {
+            if (!this.awaitAbandonedMove(playerId, timeAllowed)) {
+                //their last getMove still hasn't returned
+                throw new TimeoutException();
+            }
+            move = getMoveThreads().submit(call);
+            Game option = move.get(timeAllowed - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+            if (this.metrics != null) {
+                this.metrics.recordMove(playerId, System.nanoTime() - start);
+            }
+            return option;
+        } catch (TimeoutException te) {
+            if (move != null) {
+                move.cancel(true);
+                this.abandonedMoves[playerId] = call.abandon();
+            }
+            if (this.timeoutForfeits) {
+                throw new RuntimeException(this.getCurrentPlayerName() + " (" + this.getCurrentPlayerRole() + ") ran out of time.  They forfeit the game!");
+            }
+            throw te;
+        } catch (InterruptedException ie) {
+            move.cancel(true);
+            this.abandonedMoves[playerId] = call.abandon();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + this.getCurrentPlayerName() + " to move.", ie);
+        } catch (ExecutionException ee) {
+            //rethrow what the player threw, as if they had been called directly
+            Throwable cause = ee.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            this.clockRemaining[playerId] -= System.nanoTime() - start;
+        }
+    }
+    
+    //waits up to timeoutNanos for the getMove call of playerId's that this stopped waiting for, if any.  Returns whether it has returned.
+    private boolean awaitAbandonedMove(int playerId, long timeoutNanos) {
+        CountDownLatch abandoned = this.abandonedMoves[playerId];
+        if (abandoned == null) {
+            return true;
+        }
+        try {
+            if (!abandoned.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + this.getPlayerName(playerId) + "'s last move to finish.", ie);
+        }
+        this.abandonedMoves[playerId] = null;
+        return true;
+    }
+    
+    //checks that option is an option of the current position
+    private boolean isLegal(Game option) {
+        if (this.metrics == null) {
+            return this.position.hasOption(this.currentPlayer, option);
+        }
+        long start = System.nanoTime();
+        boolean legal = this.position.hasOption(this.currentPlayer, option);
+        this.metrics.recordLegalityCheck(System.nanoTime() - start);
+        return legal;
+    }
+    
+    //threads to run timed getMove calls on
+    private static synchronized ExecutorService getMoveThreads() {
+        if (moveThreads == null) {
+            moveThreads = Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "Referee move");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return moveThreads;
     }
     
     //determines whether the next player has any moves
@@ -253,8 +759,11 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     //moves to a new game
     //does not test that option is legal!  Should already have been tested!
     protected void move(Game option) {
+        Game previousPosition = this.position;
         this.position = option;
-        this.display.println(this.getCurrentPlayerName() + " (" + this.getCurrentPlayerRole() + ") moved to \n" + this.position);
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.moveMade(this, this.currentPlayer, previousPosition, option);
+        }
         this.currentPlayer += 1;
         if (this.currentPlayer == this.players.size()) {
             this.currentPlayer = 0;
@@ -263,40 +772,29 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     
     // repeatedly asks for moves until someone loses.
     // (This is the main loop for this code
+    // Only the player's own faults forfeit: the listeners, which move calls, are outside the try.
     protected int requestMoves() {
         while (this.position.playerHasAnOption(this.currentPlayer)) {
+            Game option;
             try {
-                Thread.sleep(this.delay);
-            } catch (Exception e) {
-                this.display.println("Couldn't sleep!");
-            }
-            try {
-                Game option = this.getNextMove();
-                this.move(option);
-            } catch (Exception e) {
+                option = this.getNextMove();
+            } catch (ForfeitException fe) {
                 this.forfeitsByPlayer.set(this.currentPlayer, this.forfeitsByPlayer.get(this.currentPlayer) + 1);
-                int errorLine = -1;
-                String className = "";
-                StackTraceElement[] stackFrames = e.getStackTrace();
-                for (StackTraceElement frame : stackFrames) {
-                    errorLine = frame.getLineNumber();
-                    className = frame.getClassName();
-                    if (errorLine != -1) break;
+                for (MatchListener<Game> listener : this.listeners) {
+                    listener.forfeited(this, this.currentPlayer, this.position, fe.fault);
                 }
-                
-                
-                this.display.println("A problem occurred (" + e.toString() + ") in " + className + " on line " + errorLine + " while " + this.getCurrentPlayerName() + " was taking their turn.  The other player wins by default!");
                 //e.printStackTrace();
+                for (MatchListener<Game> listener : this.listeners) {
+                    listener.gameEnded(this, this.position, 1 - this.currentPlayer, true);
+                }
                 return 1 - this.currentPlayer;
             }
-        }
-        try {
-            Thread.sleep(this.delay);
-        } catch (Exception e) {
-            this.display.println("Couldn't sleep!");
+            this.move(option);
         }
         int winningPlayer = 1 - this.currentPlayer;
-        this.display.println("There are no options for " + this.getCurrentPlayerName() + "!  " + this.getPlayerName(winningPlayer) + " wins!\nCongratulations to " + this.getPlayerName(winningPlayer) + "!");
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.gameEnded(this, this.position, winningPlayer, false);
+        }
         return winningPlayer;
     }
     
@@ -326,26 +824,108 @@ public class Referee<Game extends CombinatorialGame> implements Callable<Integer
     public double[] gauntlet(int numGames, boolean printDetails) {
         this.forfeitsByPlayer.set(0, 0);
         this.forfeitsByPlayer.set(1, 0);
-        int[] gamesWon = new int[] {0, 0};
-        int winner;
-        this.setPrint(true);
-        this.display.println("Beginning the competition!  There will be " + numGames + " games played!");
+        this.setPrint(this.reportsGauntlets);
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.gauntletStarted(this, numGames, 1);
+        }
         this.setPrint(printDetails);
         this.setDelay(0);
-        for (int gameIndex = 0; gameIndex < numGames; gameIndex ++) {
+        int[] gamesWon = this.playGames(0, numGames);
+        return this.reportGauntlet(numGames, gamesWon);
+    }
+    
+    /**
+     * Pits two players against each other multiple times, playing several games at once.  Each thread has its own
+     * Referee, and their results are added up at the end, so the statistics mean the same as gauntlet's: game i is
+     * still started by player i % 2.
+     *
+     * Both players, and the start state generator, are shared by all the threads, so they must be safe to call from
+     * several threads at once.
+     *
+     * @param numGames  The number of games in the competition.
+     * @param printDetails  Whether or not to print details about each game.  (The games' output will be interleaved.)
+     * @param numThreads  The number of games to play at once.
+     * @return  An Array of doubles.  The zeroeth element is the percentage Left won, oneth the percentage Right won, twoeth the number of total forfeits.
+     */
+    public double[] gauntlet(int numGames, boolean printDetails, int numThreads) {
+        if (numThreads <= 1) {
+            return this.gauntlet(numGames, printDetails);
+        }
+        this.forfeitsByPlayer.set(0, 0);
+        this.forfeitsByPlayer.set(1, 0);
+        this.setPrint(this.reportsGauntlets);
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.gauntletStarted(this, numGames, numThreads);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+        List<Referee<Game>> workerReferees = new ArrayList<Referee<Game>>();
+        for (int worker = 0; worker < numThreads; worker++) {
+            final int firstGame = (int) (((long) numGames * worker) / numThreads);
+            final int lastGame = (int) (((long) numGames * (worker + 1)) / numThreads);
+            final Referee<Game> workerReferee = new Referee<Game>(this);
+            workerReferee.setPrint(printDetails);
+            workerReferee.setDelay(0);
+            workerReferees.add(workerReferee);
+            results.add(executor.submit(new Callable<int[]>() {
+                public int[] call() {
+                    int[] gamesWon = workerReferee.playGames(firstGame, lastGame);
+                    return new int[] {gamesWon[0], gamesWon[1], workerReferee.forfeitsByPlayer.get(0), workerReferee.forfeitsByPlayer.get(1)};
+                }
+            }));
+        }
+        int[] gamesWon = new int[] {0, 0};
+        try {
+            for (Future<int[]> result : results) {
+                int[] workerResults = result.get();
+                for (int i = 0; i < 2; i++) {
+                    gamesWon[i] += workerResults[i];
+                    this.forfeitsByPlayer.set(i, this.forfeitsByPlayer.get(i) + workerResults[2 + i]);
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the games to finish.", ie);
+        } catch (ExecutionException ee) {
+            throw new RuntimeException("A game failed: " + ee.getCause(), ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        //the roles' names come from a position, so take one the workers played rather than drawing another from the generator
+        for (Referee<Game> workerReferee : workerReferees) {
+            if (workerReferee.position != null) {
+                this.position = workerReferee.position;
+            }
+        }
+        return this.reportGauntlet(numGames, gamesWon);
+    }
+    
+    //plays games firstGame, firstGame + 1, ..., lastGame - 1 of a gauntlet.  Returns the number won by each player.
+    private int[] playGames(int firstGame, int lastGame) {
+        int[] gamesWon = new int[] {0, 0};
+        int winner;
+        for (int gameIndex = firstGame; gameIndex < lastGame; gameIndex ++) {
             winner = this.call(gameIndex % 2);
             gamesWon[winner] ++;
         }
-        this.setPrint(true);
-        this.display.println("Competition complete!  Games won:");
+        return gamesWon;
+    }
+    
+    //prints the results of a gauntlet and returns them in gauntlet's format
+    private double[] reportGauntlet(int numGames, int[] gamesWon) {
+        this.setPrint(this.reportsGauntlets);
         double[] percentagesWon = new double[] {((double) gamesWon[0]) / numGames, ((double) gamesWon[1]) / numGames, (double) this.forfeitsByPlayer.get(0) + this.forfeitsByPlayer.get(1)};
-        NumberFormat percentFormat = NumberFormat.getPercentInstance();
-        for (int i = 0; i < 2; i ++) {
-            this.display.println("    " + this.getPlayerName(i) + " (" + this.getPlayerRole(i) + ") : " + gamesWon[i] + " (" + percentFormat.format(((double) gamesWon[i]) / numGames) + ")  forfeits: " + this.forfeitsByPlayer.get(i));
-        } 
+        for (MatchListener<Game> listener : this.listeners) {
+            listener.gauntletEnded(this, numGames, gamesWon);
+        }
         return percentagesWon;
     }
     
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <Game extends CombinatorialGame> MatchListener<Game>[] newListenerArray(int length) {
+        return (MatchListener<Game>[]) new MatchListener[length];
+    }
+    
     //main method for testing
     public static void main(String[] args) {
         //TODO: need to add a unit test that works for any type of game.  Unfortunately, no such thing exists...
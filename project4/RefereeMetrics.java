@@ -0,0 +1,325 @@
+/**
+ * Measurements of the games a Referee runs: how long each player takes to move, how long legality checks take, illegal
+ * moves, random fallbacks and games per second.  Give one to a Referee with
+ * setMetrics.  A Referee without one skips all of the measuring.
+ *
+ * Move times go in histograms with one bucket per power of two nanoseconds.  Everything is counted with atomic
+ * variables, so the workers of a parallel gauntlet, or several Referees, can share one.  Call registerMBean to watch it
+ * over JMX.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class RefereeMetrics implements RefereeMetricsMBean {
+
+    //instance variables
+
+    //move time histogram for both players: bucket b of player p counts moves taking [2^b, 2^(b+1)) nanoseconds
+    private final AtomicLongArray moveLatencies = new AtomicLongArray(2 * NUM_BUCKETS);
+
+    //total nanoseconds each player spent choosing moves
+    private final LongAdder[] moveNanos = new LongAdder[] {new LongAdder(), new LongAdder()};
+
+    //number of moves each player chose
+    private final LongAdder[] moves = new LongAdder[] {new LongAdder(), new LongAdder()};
+
+    //number of illegal moves each player tried
+    private final LongAdder[] illegalMoves = new LongAdder[] {new LongAdder(), new LongAdder()};
+
+    //number of random moves chosen for each player
+    private final LongAdder[] randomFallbacks = new LongAdder[] {new LongAdder(), new LongAdder()};
+
+    //number of legality checks, and the nanoseconds they took
+    private final LongAdder legalityChecks = new LongAdder();
+    private final LongAdder legalityCheckNanos = new LongAdder();
+
+    //number of games finished
+    private final LongAdder gamesPlayed = new LongAdder();
+
+    //System.nanoTime() at the start of the first game and the end of the last
+    private final AtomicLong firstGameStart = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong lastGameEnd = new AtomicLong(Long.MIN_VALUE);
+
+    //name this is registered under, if any
+    private ObjectName registeredName;
+
+    //constants
+
+    /**
+     * The number of buckets in each move time histogram.
+     */
+    public static final int NUM_BUCKETS = 64;
+
+    //public methods
+
+    /**
+     * Records a move.
+     *
+     * @param playerId  The player who chose the move.
+     * @param nanos  How long they took.
+     */
+    public void recordMove(int playerId, long nanos) {
+        this.moveLatencies.incrementAndGet(playerId * NUM_BUCKETS + bucketOf(nanos));
+        this.moveNanos[playerId].add(nanos);
+        this.moves[playerId].increment();
+    }
+
+    /**
+     * Records a check of whether a move was legal.
+     *
+     * @param nanos  How long the check took.
+     */
+    public void recordLegalityCheck(long nanos) {
+        this.legalityChecks.increment();
+        this.legalityCheckNanos.add(nanos);
+    }
+
+    /**
+     * Records an illegal move.
+     *
+     * @param playerId  The player who tried it.
+     */
+    public void recordIllegalMove(int playerId) {
+        this.illegalMoves[playerId].increment();
+    }
+
+    /**
+     * Records a random move chosen for a player.
+     *
+     * @param playerId  The player the move was chosen for.
+     */
+    public void recordRandomFallback(int playerId) {
+        this.randomFallbacks[playerId].increment();
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param startNanos  System.nanoTime() when the game started.
+     * @param endNanos  System.nanoTime() when it ended.
+     */
+    public void recordGame(long startNanos, long endNanos) {
+        this.gamesPlayed.increment();
+        this.firstGameStart.accumulateAndGet(startNanos, Math::min);
+        this.lastGameEnd.accumulateAndGet(endNanos, Math::max);
+    }
+
+    /**
+     * Gets the number of moves a player chose.
+     *
+     * @param playerId  The player.
+     * @return  The number of moves playerId chose, legal or not.
+     */
+    public long getMoves(int playerId) {
+        return this.moves[playerId].sum();
+    }
+
+    public long getMoves() {
+        return this.getMoves(0) + this.getMoves(1);
+    }
+
+    /**
+     * Gets the average time a player took to choose a move.
+     *
+     * @param playerId  The player.
+     * @return  The mean nanoseconds per move, or 0 if they haven't moved.
+     */
+    public double getMeanMoveNanos(int playerId) {
+        long numMoves = this.getMoves(playerId);
+        return (numMoves == 0) ? 0 : ((double) this.moveNanos[playerId].sum()) / numMoves;
+    }
+
+    public double getLeftMeanMoveMicros() {
+        return this.getMeanMoveNanos(0) / 1000;
+    }
+
+    public double getRightMeanMoveMicros() {
+        return this.getMeanMoveNanos(1) / 1000;
+    }
+
+    /**
+     * Gets a player's move time histogram.
+     *
+     * @param playerId  The player.
+     * @return  An array whose element b is the number of moves that took at least 2^b and less than 2^(b+1) nanoseconds.
+     */
+    public long[] getMoveLatencyHistogram(int playerId) {
+        long[] histogram = new long[NUM_BUCKETS];
+        for (int bucket = 0; bucket < NUM_BUCKETS; bucket++) {
+            histogram[bucket] = this.moveLatencies.get(playerId * NUM_BUCKETS + bucket);
+        }
+        return histogram;
+    }
+
+    /**
+     * Estimates a percentile of a player's move times from the histogram.
+     *
+     * @param playerId  The player.
+     * @param percentile  The percentile, between 0 and 100.
+     * @return  An upper bound, within a factor of two, on the time percentile percent of moves took, in nanoseconds.
+     *          0 if the player hasn't moved.
+     */
+    public long getMoveLatencyPercentile(int playerId, double percentile) {
+        long[] histogram = this.getMoveLatencyHistogram(playerId);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long needed = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < NUM_BUCKETS - 1; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= needed && seen > 0) {
+                return 1L << (bucket + 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Gets the number of legality checks.
+     *
+     * @return  The number of times the referee checked whether a move was legal.
+     */
+    public long getLegalityChecks() {
+        return this.legalityChecks.sum();
+    }
+
+    /**
+     * Gets the time spent checking moves.
+     *
+     * @return  The total nanoseconds spent checking whether moves were legal.
+     */
+    public long getLegalityCheckNanos() {
+        return this.legalityCheckNanos.sum();
+    }
+
+    public double getLegalityCheckMillis() {
+        return this.getLegalityCheckNanos() / 1e6;
+    }
+
+    /**
+     * Gets the number of illegal moves a player tried.
+     *
+     * @param playerId  The player.
+     * @return  The number of illegal moves playerId tried.
+     */
+    public long getIllegalMoves(int playerId) {
+        return this.illegalMoves[playerId].sum();
+    }
+
+    public long getIllegalMoves() {
+        return this.getIllegalMoves(0) + this.getIllegalMoves(1);
+    }
+
+    /**
+     * Gets the number of random moves chosen for a player.
+     *
+     * @param playerId  The player.
+     * @return  The number of times playerId failed to choose a move and got a random one.
+     */
+    public long getRandomFallbacks(int playerId) {
+        return this.randomFallbacks[playerId].sum();
+    }
+
+    public long getRandomFallbacks() {
+        return this.getRandomFallbacks(0) + this.getRandomFallbacks(1);
+    }
+
+    public long getGamesPlayed() {
+        return this.gamesPlayed.sum();
+    }
+
+    public double getGamesPerSecond() {
+        long elapsed = this.lastGameEnd.get() - this.firstGameStart.get();
+        return (elapsed <= 0) ? 0 : this.getGamesPlayed() * 1e9 / elapsed;
+    }
+
+    public void reset() {
+        for (int i = 0; i < this.moveLatencies.length(); i++) {
+            this.moveLatencies.set(i, 0);
+        }
+        for (int i = 0; i < 2; i++) {
+            this.moveNanos[i].reset();
+            this.moves[i].reset();
+            this.illegalMoves[i].reset();
+            this.randomFallbacks[i].reset();
+        }
+        this.legalityChecks.reset();
+        this.legalityCheckNanos.reset();
+        this.gamesPlayed.reset();
+        this.firstGameStart.set(Long.MAX_VALUE);
+        this.lastGameEnd.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Makes this visible over JMX, as project4:type=RefereeMetrics,name=name.
+     *
+     * @param name  A name to tell this apart from other metrics.
+     * @throws JMException  If the name is taken or malformed.
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("project4:type=RefereeMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.registeredName = objectName;
+    }
+
+    /**
+     * Undoes registerMBean.
+     *
+     * @throws JMException  If this can't be unregistered.
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (this.registeredName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.registeredName);
+            this.registeredName = null;
+        }
+    }
+
+    /**
+     * Returns a String version of this.
+     *
+     * @return  A summary of the measurements.
+     */
+    public String toString() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%,d games (%,.1f per second), %,d moves%n", this.getGamesPlayed(), this.getGamesPerSecond(), this.getMoves()));
+        String[] roles = new String[] {"Left", "Right"};
+        for (int i = 0; i < 2; i++) {
+            summary.append(String.format("    %s: %,d moves, mean %,.1f us, median < %,d ns, 99th percentile < %,d ns, %d illegal, %d random%n",
+                    roles[i], this.getMoves(i), this.getMeanMoveNanos(i) / 1000, this.getMoveLatencyPercentile(i, 50), this.getMoveLatencyPercentile(i, 99), this.getIllegalMoves(i), this.getRandomFallbacks(i)));
+        }
+        summary.append(String.format("    Legality checks: %,d taking %,.1f ms.", this.getLegalityChecks(), this.getLegalityCheckMillis()));
+        return summary.toString();
+    }
+
+    /**
+     * Unit test for RefereeMetrics.
+     */
+    public static void main(String[] args) throws Exception {
+        Referee<RotisserieNim> referee = new Referee<RotisserieNim>(new RandomPlayer<RotisserieNim>(), new PerfectPlayer<RotisserieNim>(), new RotisserieNim.RotisserieFactory(6, 8));
+        RefereeMetrics metrics = new RefereeMetrics();
+        metrics.registerMBean("test");
+        referee.setMetrics(metrics);
+        referee.gauntlet(2000);
+        System.out.println(metrics);
+        System.out.println("Over JMX: " + ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName("project4:type=RefereeMetrics,name=" + ObjectName.quote("test")), "GamesPlayed") + " games");
+        metrics.unregisterMBean();
+    }
+
+    /* Private methods */
+
+    //histogram bucket for a time
+    private static int bucketOf(long nanos) {
+        return 63 - Long.numberOfLeadingZeros(Math.max(1, nanos));
+    }
+
+} //end of RefereeMetrics
@@ -0,0 +1,55 @@
+/**
+ * The attributes of RefereeMetrics that can be watched over JMX, for example in JConsole.
+ */
+
+//import java.xxxxx.*;
+public interface RefereeMetricsMBean {
+
+    //public methods
+
+    /**
+     * @return  The number of games finished.
+     */
+    public long getGamesPlayed();
+
+    /**
+     * @return  Games finished per second, from the start of the first game to the end of the last.
+     */
+    public double getGamesPerSecond();
+
+    /**
+     * @return  The number of moves both players chose.
+     */
+    public long getMoves();
+
+    /**
+     * @return  The average time Left took to choose a move, in microseconds.
+     */
+    public double getLeftMeanMoveMicros();
+
+    /**
+     * @return  The average time Right took to choose a move, in microseconds.
+     */
+    public double getRightMeanMoveMicros();
+
+    /**
+     * @return  The total time spent checking that moves were legal, in milliseconds.
+     */
+    public double getLegalityCheckMillis();
+
+    /**
+     * @return  The number of illegal moves both players tried.
+     */
+    public long getIllegalMoves();
+
+    /**
+     * @return  The number of random moves chosen for players who failed to choose one.
+     */
+    public long getRandomFallbacks();
+
+    /**
+     * Sets every count back to zero.
+     */
+    public void reset();
+
+} //end of RefereeMetricsMBean
@@ -0,0 +1,303 @@
+/**
+ * A mutable Rotisserie Nim position for search code.  Moves are made and unmade in place, so a search can walk the whole
+ * game tree with a single board and without allocating anything per node.
+ *
+ * A move is just the number of sticks of the next pile to put back at the end of the queue (0 takes the whole pile), so
+ * the legal moves from a board are 0 through getFirstPileSize() - 1.  RotisserieMove wraps these as objects, and converts
+ * between them and the position-based options Player and Referee use.
+ *
+ * The board keeps the same polynomial hash as RotisserieNim, available from positionHash, so a board and an equal position
+ * have equal hashes.  Boards are mutable, so they keep Object's equals and hashCode and must not be used as keys.
+ */
+
+import java.util.*;
+
+public class RotisserieBoard {
+
+    //instance variables
+
+    //circular buffer of pile sizes.  A move never adds a pile without removing one, so this never grows.
+    private int[] piles;
+
+    //index of the next pile in piles
+    private int head;
+
+    //number of piles
+    private int numPiles;
+
+    //moves made so far, so they can be undone: each is (pile taken << 32) | sticks left on the end
+    private long[] history;
+
+    //number of moves in history
+    private int numMoves;
+
+    //same as RotisserieNim's pileHash and headWeight
+    private int pileHash;
+    private int headWeight;
+
+    /**
+     * Class constructor.
+     *
+     * @param position  The position to start from.
+     */
+    public RotisserieBoard(RotisserieNim position) {
+        this(position.getPileSizes());
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param pileSizes  The pile sizes to start from, next pile first.  All must be positive.
+     */
+    public RotisserieBoard(int[] pileSizes) {
+        this.piles = new int[0];
+        this.history = new long[0];
+        this.reset(pileSizes);
+    }
+
+    //public methods
+
+    /**
+     * Starts over from a new position, forgetting every move made so far.  Reuses this board's arrays when they are big
+     * enough, so a search can keep one board for many positions.
+     *
+     * @param position  The position to start from.
+     */
+    public void reset(RotisserieNim position) {
+        this.reset(position.getPileSizes());
+    }
+
+    /**
+     * Starts over from new pile sizes, forgetting every move made so far.
+     *
+     * @param pileSizes  The pile sizes to start from, next pile first.  All must be positive.
+     */
+    public void reset(int[] pileSizes) {
+        if (this.piles.length < Math.max(1, pileSizes.length)) {
+            this.piles = new int[Math.max(1, pileSizes.length)];
+        }
+        this.head = 0;
+        this.numPiles = 0;
+        this.numMoves = 0;
+        long totalSticks = 0;
+        this.pileHash = 0;
+        this.headWeight = RotisserieNim.HASH_BASE_INVERSE;
+        for (int pileSize : pileSizes) {
+            if (pileSize <= 0) {
+                throw new IllegalArgumentException("Tried to add a new pile with " + pileSize + " sticks.");
+            }
+            this.piles[this.numPiles++] = pileSize;
+            this.pileHash = this.pileHash * RotisserieNim.HASH_BASE + pileSize;
+            this.headWeight *= RotisserieNim.HASH_BASE;
+            totalSticks += pileSize;
+        }
+        //every move takes at least one stick, so no game is longer than this
+        if (this.history.length < totalSticks) {
+            this.history = new long[(int) Math.min(Integer.MAX_VALUE - 8, totalSticks)];
+        }
+    }
+
+    /**
+     * Makes a move.
+     *
+     * @param leftOnEnd  How many sticks of the next pile to put back at the end.  Between 0 and getFirstPileSize() - 1.
+     * @throws IllegalArgumentException  If the move isn't legal.
+     */
+    public void apply(int leftOnEnd) {
+        if (this.numPiles == 0) {
+            throw new IllegalArgumentException("There are no piles to take from.");
+        }
+        int firstPileSize = this.piles[this.head];
+        if (leftOnEnd < 0 || leftOnEnd >= firstPileSize) {
+            throw new IllegalArgumentException("Can't leave " + leftOnEnd + " sticks from a pile of " + firstPileSize + ".");
+        }
+        this.history[this.numMoves++] = ((long) firstPileSize << 32) | leftOnEnd;
+        this.head = this.next(this.head);
+        this.numPiles--;
+        this.pileHash -= firstPileSize * this.headWeight;
+        this.headWeight *= RotisserieNim.HASH_BASE_INVERSE;
+        if (leftOnEnd > 0) {
+            this.piles[this.slot(this.numPiles)] = leftOnEnd;
+            this.numPiles++;
+            this.pileHash = this.pileHash * RotisserieNim.HASH_BASE + leftOnEnd;
+            this.headWeight *= RotisserieNim.HASH_BASE;
+        }
+    }
+
+    /**
+     * Takes back the last move.
+     *
+     * @throws IllegalStateException  If no moves have been made.
+     */
+    public void undo() {
+        if (this.numMoves == 0) {
+            throw new IllegalStateException("There are no moves to undo.");
+        }
+        long move = this.history[--this.numMoves];
+        int firstPileSize = (int) (move >>> 32);
+        int leftOnEnd = (int) move;
+        if (leftOnEnd > 0) {
+            this.numPiles--;
+            this.pileHash = (this.pileHash - leftOnEnd) * RotisserieNim.HASH_BASE_INVERSE;
+            this.headWeight *= RotisserieNim.HASH_BASE_INVERSE;
+        }
+        this.head = (this.head == 0) ? this.piles.length - 1 : this.head - 1;
+        this.piles[this.head] = firstPileSize;
+        this.numPiles++;
+        this.headWeight *= RotisserieNim.HASH_BASE;
+        this.pileHash += firstPileSize * this.headWeight;
+    }
+
+    /**
+     * Gets the last move made and not undone.
+     *
+     * @return  The number of sticks the last move put back at the end, or -1 if there are no moves to undo.
+     */
+    public int getLastMove() {
+        return (this.numMoves == 0) ? -1 : (int) this.history[this.numMoves - 1];
+    }
+
+    /**
+     * Returns the number of legal moves.
+     *
+     * @return  The size of the next pile, or 0 if there are no piles.
+     */
+    public int getNumMoves() {
+        return (this.numPiles == 0) ? 0 : this.piles[this.head];
+    }
+
+    /**
+     * Gets the size of the next pile.
+     *
+     * @return  The number of sticks in the pile that will be played on next.
+     * @throws NoSuchElementException  If there are no piles.
+     */
+    public int getFirstPileSize() {
+        if (this.numPiles == 0) {
+            throw new NoSuchElementException("There is no such item");
+        }
+        return this.piles[this.head];
+    }
+
+    /**
+     * Gets the number of piles.
+     *
+     * @return  The number of (non-empty) piles.
+     */
+    public int getNumPiles() {
+        return this.numPiles;
+    }
+
+    /**
+     * Returns the number of moves made (and not undone) since this was created.
+     *
+     * @return  The depth of this board below its starting position.
+     */
+    public int getDepth() {
+        return this.numMoves;
+    }
+
+    /**
+     * Gets the pile sizes.
+     *
+     * @return  A new array of the pile sizes, next pile first.
+     */
+    public int[] getPileSizes() {
+        int[] pileSizes = new int[this.numPiles];
+        for (int i = 0; i < this.numPiles; i++) {
+            pileSizes[i] = this.piles[this.slot(i)];
+        }
+        return pileSizes;
+    }
+
+    /**
+     * Creates an immutable copy of the current position.
+     *
+     * @return  A RotisserieNim equal to this board.
+     */
+    public RotisserieNim toPosition() {
+        return new RotisserieNim(this.getPileSizes());
+    }
+
+    /**
+     * Returns the same hash RotisserieNim.hashCode gives the current position.  Changes with every move.
+     *
+     * @return  A hash of the current piles.
+     */
+    public int positionHash() {
+        return this.pileHash;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        StringBuilder string = new StringBuilder("A Rotisserie Nim board: Next Pile -->");
+        for (int i = 0; i < this.numPiles; i++) {
+            string.append(" ").append(this.piles[this.slot(i)]);
+        }
+        string.append(" <-- Last Pile");
+        return string.toString();
+    }
+
+    /**
+     * Decides whether the player to move wins, by plain search over the board.  No transposition table, so only for small
+     * positions, but nothing is allocated.
+     *
+     * @return  Whether the player to move has a winning strategy.
+     */
+    public boolean isNextPlayerWin() {
+        int numMoves = this.getNumMoves();
+        for (int leftOnEnd = 0; leftOnEnd < numMoves; leftOnEnd++) {
+            this.apply(leftOnEnd);
+            boolean opponentWins = this.isNextPlayerWin();
+            this.undo();
+            if (!opponentWins) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Unit test for RotisserieBoard.  Searches a position both ways and compares allocation.
+     */
+    public static void main(String[] args) {
+        RotisserieNim position = new RotisserieNim(new int[] {4, 5, 3, 6});
+        RotisserieBoard board = new RotisserieBoard(position);
+        board.apply(2);
+        board.apply(0);
+        System.out.println(board + " matches " + position.getOption(2).getOption(0) + ": " + board.toPosition().equals(position.getOption(2).getOption(0)) + ", same hash: " + (board.positionHash() == position.getOption(2).getOption(0).hashCode()));
+        board.undo();
+        board.undo();
+        System.out.println("Undone: " + board + ", same hash: " + (board.positionHash() == position.hashCode()));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < 3; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            boolean boardResult = board.isNextPlayerWin();
+            long boardBytes = threads.getThreadAllocatedBytes(threadId) - before;
+            before = threads.getThreadAllocatedBytes(threadId);
+            boolean solverResult = new OutcomeSolver(16).winsMovingFirst(position, CombinatorialGame.LEFT);
+            long solverBytes = threads.getThreadAllocatedBytes(threadId) - before;
+            System.out.println("Board search: " + boardResult + " allocating " + boardBytes + " bytes.  Position search: " + solverResult + " allocating " + solverBytes + " bytes.");
+        }
+    }
+
+    /* Private methods */
+
+    //slot of the pile index places behind the next one
+    private int slot(int index) {
+        int slot = this.head + index;
+        return (slot < this.piles.length) ? slot : slot - this.piles.length;
+    }
+
+    //the slot after slot
+    private int next(int slot) {
+        return (slot + 1 == this.piles.length) ? 0 : slot + 1;
+    }
+
+} //end of RotisserieBoard
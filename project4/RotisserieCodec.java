@@ -0,0 +1,302 @@
+/**
+ * Compact encodings of Rotisserie Nim positions, for use as cache and tablebase keys.
+ *
+ * Small positions pack into a single long.  Each pile of size v, where v has b bits, takes 2b - 1 bits: b - 1 one bits, a
+ * zero bit, then the low b - 1 bits of v (the top bit is always 1, so it is left out).  The next pile is in the lowest bits
+ * and a single 1 bit marks the end, so the empty position is 1L.  Since a pile field is never longer than the field of a
+ * bigger pile, every option of a packed position also fits in a long.
+ *
+ * Positions that don't fit use a byte array of the pile sizes as unsigned base-128 varints, next pile first.  Wrap those
+ * in a java.nio.ByteBuffer to use them as map keys.
+ *
+ * getInstance returns a PositionCodec that uses the byte form, for game records.  A move is stored as the number of sticks
+ * left on the end, which is also its option index.
+ */
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+public class RotisserieCodec implements PositionCodec<RotisserieNim> {
+
+    //number of bits available for pile fields in a packed long (the 64th holds the end marker)
+    private static final int PACKED_BITS = 63;
+
+    //packed form of the position with no piles
+    private static final long PACKED_EMPTY = 1L;
+
+    //the only instance, which is stateless
+    private static final RotisserieCodec INSTANCE = new RotisserieCodec();
+
+    //can't be instantiated
+    private RotisserieCodec() {
+    }
+
+    //public methods
+
+    /**
+     * Gets the PositionCodec for Rotisserie Nim.
+     *
+     * @return  A codec that uses encodeBytes and decodeBytes.
+     */
+    public static RotisserieCodec getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Encodes a position with encodeBytes.
+     *
+     * @param position  A Rotisserie Nim position.
+     * @return  The encoded position.
+     */
+    public byte[] encode(RotisserieNim position) {
+        return encodeBytes(position);
+    }
+
+    /**
+     * Decodes a position with decodeBytes.
+     *
+     * @param encoded  An encoded position.
+     * @return  The position encoded in encoded.
+     */
+    public RotisserieNim decode(byte[] encoded) {
+        return decodeBytes(encoded);
+    }
+
+    /**
+     * Encodes a move as the number of sticks it leaves on the end, without generating any options.
+     *
+     * @param position  The position moved from.
+     * @param playerId  The player who moved.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @param option  The option moved to.
+     * @return  The index of option in position's options.
+     * @throws IllegalArgumentException  If option isn't an option of position.
+     */
+    @Override
+    public int encodeMove(RotisserieNim position, int playerId, RotisserieNim option) {
+        if (!position.hasOption(playerId, option)) {
+            throw new IllegalArgumentException(option + " is not an option of " + position);
+        }
+        return (option.getNumPiles() < position.getNumPiles()) ? 0 : option.getLastPileSize();
+    }
+
+    /**
+     * Decodes a move encoded by encodeMove, building only that option.
+     *
+     * @param position  The position moved from.
+     * @param playerId  The player who moved.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @param moveIndex  The encoded move.
+     * @return  The option moved to.
+     * @throws IllegalArgumentException  If position has fewer than moveIndex + 1 options.
+     */
+    @Override
+    public RotisserieNim decodeMove(RotisserieNim position, int playerId, int moveIndex) {
+        return position.getOption(moveIndex);
+    }
+
+    /**
+     * Determines whether a position can be packed into a long.
+     *
+     * @param position  A Rotisserie Nim position.
+     * @return  Whether packLong will accept position.
+     */
+    public static boolean fitsInLong(RotisserieNim position) {
+        return packedLength(position.getPileSizes()) <= PACKED_BITS;
+    }
+
+    /**
+     * Packs a position into a long.
+     *
+     * @param position  A position for which fitsInLong is true.
+     * @return  The packed form of position.
+     * @throws IllegalArgumentException  If position is too big to pack.
+     */
+    public static long packLong(RotisserieNim position) {
+        int[] piles = position.getPileSizes();
+        if (packedLength(piles) > PACKED_BITS) {
+            throw new IllegalArgumentException(position + " is too big to pack into a long.");
+        }
+        long packed = 0L;
+        int length = 0;
+        for (int pileSize : piles) {
+            packed |= packPile(pileSize) << length;
+            length += fieldLength(pileSize);
+        }
+        return packed | (1L << length);
+    }
+
+    /**
+     * Unpacks a position packed by packLong.
+     *
+     * @param packed  A packed position.
+     * @return  The position packed in packed.
+     */
+    public static RotisserieNim unpackLong(long packed) {
+        int[] piles = new int[countPackedPiles(packed)];
+        for (int i = 0; i < piles.length; i++) {
+            int pileSize = firstPackedPile(packed);
+            piles[i] = pileSize;
+            packed >>>= fieldLength(pileSize);
+        }
+        return new RotisserieNim(piles);
+    }
+
+    /**
+     * Gets the options of a packed position without unpacking it.
+     *
+     * @param packed  A packed position.
+     * @return  The packed options, in the same order RotisserieNim.getOptions returns them.
+     */
+    public static long[] getPackedOptions(long packed) {
+        if (packed == PACKED_EMPTY) {
+            return new long[0];
+        }
+        int firstPileSize = firstPackedPile(packed);
+        long rest = packed >>> fieldLength(firstPileSize);
+        int restLength = 63 - Long.numberOfLeadingZeros(rest);
+        long restWithoutEnd = rest ^ (1L << restLength);
+        long[] options = new long[firstPileSize];
+        options[0] = rest;
+        for (int optionPileSize = 1; optionPileSize < firstPileSize; optionPileSize++) {
+            int optionLength = restLength + fieldLength(optionPileSize);
+            options[optionPileSize] = restWithoutEnd | (packPile(optionPileSize) << restLength) | (1L << optionLength);
+        }
+        return options;
+    }
+
+    /**
+     * Encodes a position as varint bytes.  Works for any position.
+     *
+     * @param position  A Rotisserie Nim position.
+     * @return  The encoded position.
+     */
+    public static byte[] encodeBytes(RotisserieNim position) {
+        int[] piles = position.getPileSizes();
+        int length = 0;
+        for (int pileSize : piles) {
+            length += GameRecord.varintLength(pileSize);
+        }
+        byte[] encoded = new byte[length];
+        ByteBuffer destination = ByteBuffer.wrap(encoded);
+        for (int pileSize : piles) {
+            GameRecord.writeVarint(pileSize, destination);
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes a position encoded by encodeBytes.
+     *
+     * @param encoded  An encoded position.
+     * @return  The position encoded in encoded.
+     */
+    public static RotisserieNim decodeBytes(byte[] encoded) {
+        int numPiles = 0;
+        for (byte b : encoded) {
+            if (b >= 0) {
+                numPiles++;
+            }
+        }
+        int[] piles = new int[numPiles];
+        ByteBuffer source = ByteBuffer.wrap(encoded);
+        for (int i = 0; i < numPiles; i++) {
+            piles[i] = GameRecord.readVarint(source);
+        }
+        return new RotisserieNim(piles);
+    }
+
+    /**
+     * Gets the options of an encoded position without decoding it.
+     *
+     * @param encoded  An encoded position.
+     * @return  The encoded options, in the same order RotisserieNim.getOptions returns them.
+     */
+    public static byte[][] getEncodedOptions(byte[] encoded) {
+        if (encoded.length == 0) {
+            return new byte[0][];
+        }
+        ByteBuffer source = ByteBuffer.wrap(encoded);
+        int firstPileSize = GameRecord.readVarint(source);
+        int restStart = source.position();
+        int restLength = encoded.length - restStart;
+        byte[][] options = new byte[firstPileSize][];
+        options[0] = Arrays.copyOfRange(encoded, restStart, encoded.length);
+        for (int optionPileSize = 1; optionPileSize < firstPileSize; optionPileSize++) {
+            byte[] option = new byte[restLength + GameRecord.varintLength(optionPileSize)];
+            System.arraycopy(encoded, restStart, option, 0, restLength);
+            GameRecord.writeVarint(optionPileSize, ByteBuffer.wrap(option, restLength, option.length - restLength));
+            options[optionPileSize] = option;
+        }
+        return options;
+    }
+
+    /**
+     * Unit test for RotisserieCodec.
+     */
+    public static void main(String[] args) {
+        RotisserieNim small = new RotisserieNim(new int[] {3, 5, 7, 1, 12});
+        long packed = RotisserieCodec.packLong(small);
+        System.out.println(small + " packs to " + Long.toBinaryString(packed) + " and unpacks to " + RotisserieCodec.unpackLong(packed));
+        long[] packedOptions = RotisserieCodec.getPackedOptions(packed);
+        int i = 0;
+        for (CombinatorialGame option : small.getOptions(CombinatorialGame.LEFT)) {
+            System.out.println("    " + option + " matches packed option: " + option.equals(RotisserieCodec.unpackLong(packedOptions[i++])));
+        }
+        int[] bigPiles = new int[40];
+        Arrays.fill(bigPiles, 300);
+        RotisserieNim big = new RotisserieNim(bigPiles);
+        byte[] encoded = RotisserieCodec.encodeBytes(big);
+        System.out.println("40 piles of 300 fit in a long: " + RotisserieCodec.fitsInLong(big) + "; " + encoded.length + " bytes round trip: " + big.equals(RotisserieCodec.decodeBytes(encoded)));
+        byte[][] encodedOptions = RotisserieCodec.getEncodedOptions(encoded);
+        i = 0;
+        boolean allMatch = true;
+        for (CombinatorialGame option : big.getOptions(CombinatorialGame.LEFT)) {
+            allMatch &= option.equals(RotisserieCodec.decodeBytes(encodedOptions[i++]));
+        }
+        System.out.println("All " + encodedOptions.length + " encoded options match: " + allMatch);
+    }
+
+    /* Private methods */
+
+    //number of bits in a pile's packed field
+    private static int fieldLength(int pileSize) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(pileSize)) - 1;
+    }
+
+    //total bits needed for the pile fields of a position
+    private static int packedLength(int[] piles) {
+        int length = 0;
+        for (int pileSize : piles) {
+            length += fieldLength(pileSize);
+            if (length > PACKED_BITS) {
+                break;
+            }
+        }
+        return length;
+    }
+
+    //the packed field of a single pile, in the low bits
+    private static long packPile(int pileSize) {
+        int extraBits = 31 - Integer.numberOfLeadingZeros(pileSize);
+        long lowBits = pileSize ^ (1 << extraBits);
+        long lengthPrefix = (1L << extraBits) - 1;
+        return lengthPrefix | (lowBits << (extraBits + 1));
+    }
+
+    //reads the pile in the low bits of a packed position (which must not be empty)
+    private static int firstPackedPile(long packed) {
+        int extraBits = Long.numberOfTrailingZeros(~packed);
+        int lowBits = (int) ((packed >>> (extraBits + 1)) & ((1L << extraBits) - 1));
+        return (1 << extraBits) | lowBits;
+    }
+
+    //counts the piles in a packed position
+    private static int countPackedPiles(long packed) {
+        int numPiles = 0;
+        while (packed != PACKED_EMPTY) {
+            packed >>>= fieldLength(firstPackedPile(packed));
+            numPiles++;
+        }
+        return numPiles;
+    }
+
+}  //end of RotisserieCodec
@@ -0,0 +1,128 @@
+/**
+ * A Rotisserie Nim move: take the next pile and put some of its sticks back at the end of the queue.
+ *
+ * Moves can be made and unmade on a RotisserieBoard, and converted to and from the options Player and Referee work with.
+ * Moves are immutable, and valueOf shares instances, so holding on to moves costs nothing.
+ */
+
+public class RotisserieMove {
+
+    //moves that valueOf hands out without allocating
+    private static final RotisserieMove[] CACHE = new RotisserieMove[256];
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new RotisserieMove(i);
+        }
+    }
+
+    //instance variables
+
+    //sticks put back at the end of the queue (0 takes the whole pile)
+    private final int leftOnEnd;
+
+    //private constructor
+    private RotisserieMove(int leftOnEnd) {
+        this.leftOnEnd = leftOnEnd;
+    }
+
+    //public methods
+
+    /**
+     * Returns a move.
+     *
+     * @param leftOnEnd  How many sticks of the next pile to put back at the end of the queue.  0 takes the whole pile.
+     * @return  The move that leaves leftOnEnd sticks.
+     */
+    public static RotisserieMove valueOf(int leftOnEnd) {
+        if (leftOnEnd < 0) {
+            throw new IllegalArgumentException("Can't leave " + leftOnEnd + " sticks.");
+        }
+        return (leftOnEnd < CACHE.length) ? CACHE[leftOnEnd] : new RotisserieMove(leftOnEnd);
+    }
+
+    /**
+     * Finds the move that goes from a position to one of its options.
+     *
+     * @param position  The position moved from.
+     * @param option  An option of position.
+     * @return  The move from position to option.
+     * @throws IllegalArgumentException  If option isn't an option of position.
+     */
+    public static RotisserieMove fromOption(RotisserieNim position, RotisserieNim option) {
+        if (!position.hasOption(CombinatorialGame.LEFT, option)) {
+            throw new IllegalArgumentException(option + " is not an option of " + position);
+        }
+        return valueOf((option.getNumPiles() < position.getNumPiles()) ? 0 : option.getLastPileSize());
+    }
+
+    /**
+     * Returns the number of sticks this puts back.
+     *
+     * @return  The size of the pile this adds to the end, or 0 if it takes the whole pile.
+     */
+    public int getLeftOnEnd() {
+        return this.leftOnEnd;
+    }
+
+    /**
+     * Makes this move on a board.
+     *
+     * @param board  The board to change.
+     */
+    public void apply(RotisserieBoard board) {
+        board.apply(this.leftOnEnd);
+    }
+
+    /**
+     * Takes this move back on a board.  It must be the last move made there.
+     *
+     * @param board  The board to change.
+     * @throws IllegalStateException  If the last move made on board isn't this one.
+     */
+    public void undo(RotisserieBoard board) {
+        if (board.getLastMove() != this.leftOnEnd) {
+            throw new IllegalStateException("Can't undo \"" + this + "\": it isn't the last move made on " + board);
+        }
+        board.undo();
+    }
+
+    /**
+     * Turns this into an option.
+     *
+     * @param position  The position to move from.
+     * @return  The option of position this move goes to.
+     */
+    public RotisserieNim toOption(RotisserieNim position) {
+        return position.getOption(this.leftOnEnd);
+    }
+
+    /**
+     * Determines whether this is legal.
+     *
+     * @param position  The position to move from.
+     * @return  Whether this move can be made from position.
+     */
+    public boolean isLegal(RotisserieNim position) {
+        return position.getNumPiles() > 0 && this.leftOnEnd < position.getFirstPileSize();
+    }
+
+    //@override
+    public boolean equals(Object obj) {
+        return (obj instanceof RotisserieMove) && ((RotisserieMove) obj).leftOnEnd == this.leftOnEnd;
+    }
+
+    //@override
+    public int hashCode() {
+        return this.leftOnEnd;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        return (this.leftOnEnd == 0) ? "Take the whole pile" : "Take the pile, leave " + this.leftOnEnd + " on the end";
+    }
+
+} //end of RotisserieMove
@@ -1,18 +1,54 @@
 /**
  * Models a Rotisserie Nim position.
  *
+ * Positions are immutable.  The piles are kept as a persistent queue: the piles not yet played from an array that is
+ * shared between a position and its options, followed by a shared linked list of the piles appended since, newest first.
+ * An option therefore only allocates itself and, at most, one new pile link.
+ *
  * @author Kyle Burke <paithanq@gmail.com>
  */
  
 import java.lang.*;
 import java.io.*;
 import java.util.*;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 public class RotisserieNim extends CombinatorialGame {
 
     //instance variables
-    //the piles in this.
-    private PureQueue<Integer> piles; 
+    
+    //piles that have not been rotated yet are front[frontStart], front[frontStart + 1], ..., front[front.length - 1].  Never modified; shared with options.
+    private final int[] front;
+    
+    //index in front of the next pile
+    private final int frontStart;
+    
+    //piles added to the end of the queue, newest first.  Shared with options.
+    private final PileLink back;
+    
+    //total number of piles in this
+    private final int numPiles;
+    
+    //polynomial hash of the piles: the sum of pile[i] * HASH_BASE^(numPiles - 1 - i), mod 2^32
+    private final int pileHash;
+    
+    //HASH_BASE^(numPiles - 1), the weight of the next pile in pileHash.  (HASH_BASE^-1 when there are no piles.)
+    private final int headWeight;
+    
+    //back as an array, oldest first.  Built the first time it's needed once front is used up.
+    private volatile int[] backAsFront;
+    
+    //shared by all positions whose front has been used up
+    private static final int[] NO_PILES = new int[0];
+    
+    //multiplier for pileHash.  Odd, so it has an inverse mod 2^32 and the head's weight can be shifted down.  (RotisserieBoard hashes the same way.)
+    static final int HASH_BASE = 0x9E3779B1;
+    
+    //HASH_BASE^-1 mod 2^32
+    static final int HASH_BASE_INVERSE = invert(HASH_BASE);
 
     /**
      * Class constructor.
@@ -20,16 +56,28 @@ public class RotisserieNim extends CombinatorialGame {
      * @param piles     An array of the pile sizes for this game.  The zeroeth element is the first pile that will be played on.
      */
     public RotisserieNim(int[] piles) {
-        //cheating here, using a built-in class for testing
-        this.piles = new PureQueue<Integer>();  
+        int[] pileSizes = new int[piles.length];
+        int numNonEmpty = 0;
         for (int i = 0; i < piles.length; i++) {
             int pileSize = piles[i];
             if (pileSize > 0) {
-                this.piles.add(new Integer(pileSize));
+                pileSizes[numNonEmpty++] = pileSize;
             } else {
                 System.err.println("Tried to add a new pile with " + pileSize + " sticks.");
             }
         }
+        this.front = (numNonEmpty == piles.length) ? pileSizes : Arrays.copyOf(pileSizes, numNonEmpty);
+        this.frontStart = 0;
+        this.back = null;
+        this.numPiles = numNonEmpty;
+        int hash = 0;
+        int weight = HASH_BASE_INVERSE;
+        for (int i = 0; i < numNonEmpty; i++) {
+            hash = hash * HASH_BASE + this.front[i];
+            weight *= HASH_BASE;
+        }
+        this.pileHash = hash;
+        this.headWeight = weight;
     }
     
     /**
@@ -47,7 +95,26 @@ public class RotisserieNim extends CombinatorialGame {
      * @param piles  A Queue of the piles sizes for this game.
      */
     public RotisserieNim(PureQueue<Integer> piles) {
-        this.piles = this.copyQueue(piles);
+        this(RotisserieNim.unboxArray(piles));
+    }
+    
+    /**
+     * Class constructor.
+     *
+     * @param piles  A Queue of the piles sizes for this game.
+     */
+    public RotisserieNim(IntPureQueue piles) {
+        this(piles.toArray());
+    }
+    
+    //option constructor.  Shares front and back with the parent position.
+    private RotisserieNim(int[] front, int frontStart, PileLink back, int numPiles, int pileHash, int headWeight) {
+        this.front = front;
+        this.frontStart = frontStart;
+        this.back = back;
+        this.numPiles = numPiles;
+        this.pileHash = pileHash;
+        this.headWeight = headWeight;
     }
     
     /**
@@ -56,77 +123,228 @@ public class RotisserieNim extends CombinatorialGame {
      * @return  A String representation of this.
      */
     public String toString() {
-        String string = "A Rotisserie Nim position: Next Pile -->";
-        List<Integer> pileSizes = getListFromQueue(this.getPiles());
-        for (Integer pileSize : pileSizes) {
-            string += " " + pileSize;
+        StringBuilder string = new StringBuilder("A Rotisserie Nim position: Next Pile -->");
+        for (int pileSize : this.getPileSizes()) {
+            string.append(" ").append(pileSize);
         }
-        string += " <-- Last Pile";
-        return string;
+        string.append(" <-- Last Pile");
+        return string.toString();
     }
     
     /**
      * Gets the piles.
      *
      * @return  A copy of the piles, as a Queue.
+     * @deprecated  Boxes every pile.  Use getIntPiles or getPileSizes instead.
      */
+    @Deprecated
     public PureQueue<Integer> getPiles() {
-        return this.copyQueue(this.piles);
+        PureQueue<Integer> piles = new PureQueue<Integer>();
+        for (int pileSize : this.getPileSizes()) {
+            piles.add(pileSize);
+        }
+        return piles;
+    }
+    
+    /**
+     * Gets the piles, without boxing them.
+     *
+     * @return  A copy of the piles, as a Queue.
+     */
+    public IntPureQueue getIntPiles() {
+        return new IntPureQueue(this.getPileSizes());
+    }
+    
+    /**
+     * Gets the pile sizes.
+     *
+     * @return  A new array of the pile sizes.  The zeroeth element is the next pile that will be played on.
+     */
+    public int[] getPileSizes() {
+        int[] pileSizes = new int[this.numPiles];
+        int numFront = this.front.length - this.frontStart;
+        System.arraycopy(this.front, this.frontStart, pileSizes, 0, numFront);
+        int i = this.numPiles - 1;
+        for (PileLink link = this.back; link != null; link = link.next) {
+            pileSizes[i--] = link.size;
+        }
+        return pileSizes;
+    }
+    
+    /**
+     * Gets the number of piles.
+     *
+     * @return  The number of (non-empty) piles in this.
+     */
+    public int getNumPiles() {
+        return this.numPiles;
+    }
+    
+    /**
+     * Gets the size of the next pile.
+     *
+     * @return  The number of sticks in the pile that will be played on next.
+     * @throws NoSuchElementException  If there are no piles.
+     */
+    public int getFirstPileSize() {
+        if (this.numPiles == 0) {
+            throw new NoSuchElementException("There is no such item");
+        }
+        return (this.frontStart < this.front.length) ? this.front[this.frontStart] : this.getBackAsFront()[0];
+    }
+    
+    /**
+     * Gets the size of the last pile.
+     *
+     * @return  The number of sticks in the pile that will be played on last.
+     * @throws NoSuchElementException  If there are no piles.
+     */
+    public int getLastPileSize() {
+        if (this.numPiles == 0) {
+            throw new NoSuchElementException("There is no such item");
+        }
+        return (this.back != null) ? this.back.size : this.front[this.front.length - 1];
+    }
+    
+    /**
+     * Gets a single option, without building any of the others.
+     *
+     * @param leftOnEnd  How many sticks of the next pile to put back at the end of the queue.  0 takes the whole pile.
+     * @return  The option of this that leaves leftOnEnd sticks.
+     * @throws IllegalArgumentException  If leftOnEnd isn't between 0 and one less than the size of the next pile.
+     */
+    public RotisserieNim getOption(int leftOnEnd) {
+        if (this.numPiles == 0 || leftOnEnd < 0 || leftOnEnd >= this.getFirstPileSize()) {
+            throw new IllegalArgumentException("Can't leave " + leftOnEnd + " sticks from " + this);
+        }
+        OptionIterator options = new OptionIterator();
+        return options.build(leftOnEnd);
     }
     
     /**
      * Clones this.
      *
-     * @return  A deep clone of this.
+     * @return  This.  Positions are immutable, so there is nothing to copy.
      */
     public RotisserieNim clone() {
-        return new RotisserieNim(this.piles);
+        return this;
+    }
+    
+    /**
+     * Returns a polynomial hash of the pile sequence.  It is computed once per position, and an option derives its hash
+     * from its parent's in constant time.
+     *
+     * @return  A hash code for this position, consistent with equals.
+     */
+    @Override
+    public int structuralHashCode() {
+        return this.pileHash;
     }
     
     @Override
     public boolean equals(CombinatorialGame game) {
-        try {
-            RotisserieNim otherNim = (RotisserieNim) game;
-            return this.piles.equals(otherNim.piles);
-        } catch (ClassCastException cce) {
+        if (!(game instanceof RotisserieNim)) {
             return false;
         }
+        return this.hasSamePiles((RotisserieNim) game);
     }
     
     @Override
     public boolean equals(Object obj) {
-        RotisserieNim otherNim;
-        try {
-            otherNim = (RotisserieNim) obj;
-            return this.piles.equals(otherNim.piles);
-        } catch (ClassCastException cce) {
+        if (!(obj instanceof RotisserieNim)) {
             return false;
         }
+        return this.hasSamePiles((RotisserieNim) obj);
     }
     
     //@override
     public Collection<CombinatorialGame> getOptions(int player) {
         Collection<CombinatorialGame> options = new Vector<CombinatorialGame>();
-        int firstPileSize;
-        try {
-            firstPileSize = this.piles.element().intValue();
-        } catch (NoSuchElementException nsee) {
-            //there are no piles; there is no first pile!
-            return options;
-        }
-        //create the option that removes all 
-        RotisserieNim takeAll = this.clone();
-        takeAll.piles.remove();
-        options.add(takeAll);
-        for (int optionPileSize = 1; optionPileSize < firstPileSize; optionPileSize++) {
-            //add an option with the new pile on the end
-            RotisserieNim newOption = takeAll.clone();
-            newOption.piles.add(new Integer(optionPileSize));
-            options.add(newOption);
+        for (Iterator<CombinatorialGame> optionIterator = this.getOptionIterator(player); optionIterator.hasNext(); ) {
+            options.add(optionIterator.next());
         }
         return options;
     }
     
+    /**
+     * Determines whether a position is an option of this, without generating any options.  The option must be the rest
+     * of the piles after the next one, possibly followed by one new pile smaller than the next one.
+     *
+     * @param player  The player moving.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @param option  A potential option.
+     * @return  Whether option is a move option of this.
+     */
+    @Override
+    public boolean hasOption(int player, CombinatorialGame option) {
+        if (!(option instanceof RotisserieNim) || this.numPiles == 0) {
+            return false;
+        }
+        RotisserieNim nimOption = (RotisserieNim) option;
+        int firstPileSize = this.getFirstPileSize();
+        int restHash = this.pileHash - firstPileSize * this.headWeight;
+        if (nimOption.numPiles == this.numPiles - 1) {
+            //took the whole pile
+            return nimOption.pileHash == restHash && this.endsMatch(nimOption, 0, this.numPiles - 1);
+        } else if (nimOption.numPiles == this.numPiles) {
+            //left some sticks on the end
+            int lastPileSize = nimOption.getLastPileSize();
+            return lastPileSize < firstPileSize && nimOption.pileHash == restHash * HASH_BASE + lastPileSize && this.endsMatch(nimOption, 1, this.numPiles - 1);
+        }
+        return false;
+    }
+    
+    /**
+     * Determines whether there are any moves left.
+     *
+     * @param player  The player moving.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @return  Whether there are any piles.
+     */
+    @Override
+    public boolean playerHasAnOption(int player) {
+        return this.numPiles > 0;
+    }
+    
+    /**
+     * Chooses a random option by choosing how many sticks to leave, then building just that option.
+     *
+     * @param player  The player moving.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @param random  The source of randomness.
+     * @return  A random option, each equally likely.
+     * @throws NoSuchElementException  If there are no piles.
+     */
+    @Override
+    public CombinatorialGame randomOption(int player, RandomGenerator random) {
+        return this.getOption(random.nextInt(this.getFirstPileSize()));
+    }
+    
+    /**
+     * Plays random moves on a RotisserieBoard, so a playout allocates the board once instead of a position per move.
+     *
+     * @param playerToMove  The player who moves first.
+     * @param random        The source of randomness.
+     * @return              The winner: the player who made the last move.
+     */
+    @Override
+    public int randomPlayout(int playerToMove, RandomGenerator random) {
+        RotisserieBoard board = new RotisserieBoard(this);
+        for (int numMoves = board.getNumMoves(); numMoves > 0; numMoves = board.getNumMoves()) {
+            board.apply(random.nextInt(numMoves));
+            playerToMove = otherPlayer(playerToMove);
+        }
+        return otherPlayer(playerToMove);
+    }
+    
+    /**
+     * Iterates over the options, building each one only when next is called.
+     *
+     * @param player  The player to get the options for.  (Rotisserie Nim is impartial, so this doesn't matter.)
+     * @return  An iterator over the options: taking the whole next pile first, then leaving 1, 2, ... sticks at the end.
+     */
+    @Override
+    public Iterator<CombinatorialGame> getOptionIterator(int player) {
+        return new OptionIterator();
+    }
+    
     /**
      * Unit test for RotisserieNim.
      */
@@ -139,10 +357,99 @@ public class RotisserieNim extends CombinatorialGame {
         for (CombinatorialGame option: cycleNim.getOptions(CombinatorialGame.LEFT)) {
             System.out.println("    " + option);
         }
+        //play around the table a few times, so the appended piles become the front
+        RotisserieNim position = cycleNim;
+        for (int turn = 0; turn < 5; turn++) {
+            Vector<CombinatorialGame> options = new Vector<CombinatorialGame>(position.getOptions(CombinatorialGame.LEFT));
+            position = (RotisserieNim) options.lastElement();
+        }
+        System.out.println("After five moves: " + position);
+        System.out.println("Equal to a fresh copy: " + position.equals(new RotisserieNim(position.getPileSizes())));
+        //seeded factories repeat themselves, and batches don't depend on how they're split between threads
+        RotisserieFactory factory = new RotisserieFactory(10, 12, 42);
+        RotisserieFactory sameFactory = new RotisserieFactory(10, 12, 42);
+        System.out.println("Same seed, same positions: " + (factory.getPosition().equals(sameFactory.getPosition()) && factory.split().getPosition().equals(sameFactory.split().getPosition())));
+        int[][] batch = factory.getPileSizes(100000);
+        Object[] parallelBatch = sameFactory.getPositions(100000).parallel().toArray();
+        boolean batchesMatch = true;
+        for (int i = 0; i < batch.length; i++) {
+            batchesMatch &= Arrays.equals(batch[i], ((RotisserieNim) parallelBatch[i]).getPileSizes());
+        }
+        System.out.println("Parallel batch matches sequential batch: " + batchesMatch);
     }
     
     /* Private methods */
     
+    //returns the piles in back, oldest first, so they can act as the front of the options of this
+    private int[] getBackAsFront() {
+        int[] pileSizes = this.backAsFront;
+        if (pileSizes == null) {
+            pileSizes = (this.back == null) ? NO_PILES : this.getPileSizes();
+            this.backAsFront = pileSizes;
+        }
+        return pileSizes;
+    }
+    
+    //whether this has the same piles as other, in the same order.
+    private boolean hasSamePiles(RotisserieNim other) {
+        if (this == other) {
+            return true;
+        }
+        if (this.numPiles != other.numPiles || this.pileHash != other.pileHash) {
+            return false;
+        }
+        return this.endsMatch(other, 0, this.numPiles);
+    }
+    
+    //whether the last count piles of this are the same as the count piles of other that come just before its last skip piles.
+    //Walks both from the end back, so nothing is allocated, and stops as soon as the rest is shared.
+    private boolean endsMatch(RotisserieNim other, int skip, int count) {
+        PileLink myLink = this.back;
+        PileLink otherLink = other.back;
+        int myIndex = this.front.length - 1;
+        int otherIndex = other.front.length - 1;
+        for (int i = 0; i < skip; i++) {
+            if (otherLink != null) {
+                otherLink = otherLink.next;
+            } else {
+                otherIndex--;
+            }
+        }
+        for (int remaining = count; remaining > 0; remaining--) {
+            if (myLink == otherLink && myIndex == otherIndex && this.front == other.front) {
+                //the rest is shared
+                return true;
+            }
+            int myPile;
+            if (myLink != null) {
+                myPile = myLink.size;
+                myLink = myLink.next;
+            } else {
+                myPile = this.front[myIndex--];
+            }
+            int otherPile;
+            if (otherLink != null) {
+                otherPile = otherLink.size;
+                otherLink = otherLink.next;
+            } else {
+                otherPile = other.front[otherIndex--];
+            }
+            if (myPile != otherPile) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    //the multiplicative inverse of an odd number, mod 2^32 (Newton's iteration; each step doubles the correct bits)
+    private static int invert(int odd) {
+        int inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse;
+    }
+    
     //"unboxes" a list of integers.  More specifically, returns a primitive copy of a list of Integer objects.
     private static int[] unboxArray(Integer[] integers) {
         int[] integersUnboxed = new int[integers.length];
@@ -152,52 +459,97 @@ public class RotisserieNim extends CombinatorialGame {
         return integersUnboxed;
     }
     
-    //copies a Queue of Integers
-    private <T> PureQueue<T> copyQueue(PureQueue<T> elements) {
-        PureQueue<T> copyToReturn = new PureQueue<T>();
-        PureQueue<T> copyToReuse = new PureQueue<T>();
-        //remove all elements of integers and add to both copies
-        while (true) {
-            T nextElement;
-            try {
-                nextElement = elements.remove();
-                copyToReturn.add(nextElement);
-                copyToReuse.add(nextElement);
-            } catch (NoSuchElementException nsee) {
-                break; //escape the while loop; we've removed all elements
+    //"unboxes" a queue of integers.
+    private static int[] unboxArray(PureQueue<Integer> integers) {
+        int[] integersUnboxed = new int[integers.size()];
+        for (int i = 0; i < integersUnboxed.length; i++) {
+            integersUnboxed[i] = integers.get(i).intValue();
+        }
+        return integersUnboxed;
+    }
+    
+    //builds the options of this one at a time.  Everything the options share is worked out up front.
+    private final class OptionIterator implements Iterator<CombinatorialGame> {
+    
+        //where the rest of the piles start once the first is taken
+        private int[] restFront;
+        private int restStart;
+        private PileLink restBack;
+        private int restHash;
+        private int restWeight;
+        
+        //size of the pile being taken (0 when there are no piles)
+        private int firstPileSize;
+        
+        //sticks the next option leaves on the end (0 means taking the whole pile)
+        private int nextPileSize;
+        
+        private OptionIterator() {
+            if (numPiles == 0) {
+                //there are no piles; there is no first pile!
+                this.firstPileSize = 0;
+                return;
+            }
+            this.restFront = front;
+            this.restStart = frontStart;
+            this.restBack = back;
+            if (this.restStart == this.restFront.length) {
+                this.restFront = getBackAsFront();
+                this.restStart = 0;
+                this.restBack = null;
+            }
+            this.firstPileSize = this.restFront[this.restStart];
+            this.restStart ++;
+            this.restHash = pileHash - this.firstPileSize * headWeight;
+            this.restWeight = headWeight * HASH_BASE_INVERSE;
+            this.nextPileSize = 0;
+        }
+        
+        public boolean hasNext() {
+            return this.nextPileSize < this.firstPileSize;
+        }
+        
+        public CombinatorialGame next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException("There are no more options of " + RotisserieNim.this);
             }
+            return this.build(this.nextPileSize++);
         }
-        //elements is now empty!  Leave copyToReturn as is, but let's put the things from copyToReuse back into elements.
-        while (true) {
-            T nextElement;
-            try {
-                nextElement = copyToReuse.remove();
-                elements.add(nextElement);
-            } catch (NoSuchElementException nsee) {
-                break; //escape the loop; we've remove everything from copyToReuse
+        
+        //the option that leaves optionPileSize sticks on the end
+        private RotisserieNim build(int optionPileSize) {
+            if (optionPileSize == 0) {
+                //the option that removes all 
+                return new RotisserieNim(this.restFront, this.restStart, this.restBack, numPiles - 1, this.restHash, this.restWeight);
             }
+            //an option with the new pile on the end
+            return new RotisserieNim(this.restFront, this.restStart, new PileLink(optionPileSize, this.restBack), numPiles, this.restHash * HASH_BASE + optionPileSize, headWeight);
         }
-        return copyToReturn;
     }
     
-    //returns an ArrayList version of a Queue
-    private <T> ArrayList<T> getListFromQueue(PureQueue<T> queue) {
-        PureQueue<T> queueCopy = this.copyQueue(queue);
-        ArrayList<T> list = new ArrayList<T>();
-        while (true) {
-            T nextElement;
-            try {
-                nextElement = queueCopy.remove();
-                list.add(nextElement);
-            } catch (NoSuchElementException nsee) {
-                break; //escape the loop; we've remove everything from copyToReuse
-            }
+    //a pile added to the end of the queue, linked to the piles added before it
+    private static final class PileLink {
+    
+        //size of the pile
+        private final int size;
+        
+        //the pile added just before this one
+        private final PileLink next;
+        
+        private PileLink(int size, PileLink next) {
+            this.size = size;
+            this.next = next;
         }
-        return list;
     }
     
     /**
-     * A generator of RotisserieNim positions.
+     * Creates random positions: each of numPiles piles gets between 0 and maxPileSize sticks, and the empty ones are
+     * dropped.
+     *
+     * A factory made with a seed always produces the same positions.  getPosition is synchronized, so a factory can be
+     * shared between threads, but then which thread gets which position depends on timing; give each worker its own
+     * factory from split to keep a parallel run reproducible.  getPositions and getPileSizes produce whole batches, where
+     * each position depends only on the batch and its index, so a batch is the same however many threads build it.
      */
     public static class RotisserieFactory implements PositionFactory<RotisserieNim> {
     
@@ -207,28 +559,101 @@ public class RotisserieNim extends CombinatorialGame {
         //maximum piles size
         private int maxPileSize;
         
+        //source of pile sizes and batch seeds
+        private SplittableRandom random;
+        
+        //increment between the seeds of positions in a batch.  Odd, and unlike SplittableRandom's own increment, so neighboring positions' generators don't overlap.
+        private static final long BATCH_GAMMA = 0xBF58476D1CE4E5B9L;
+        
         /**
-         * Class constructor.
+         * Class constructor.  Each factory made this way produces different positions.
          *
          * @param numPiles  The maximum number of piles.
          * @param maxPileSize  The maximum size of a pile.
          */
         public RotisserieFactory(int numPiles, int maxPileSize) {
+            this(numPiles, maxPileSize, new SplittableRandom());
+        }
+        
+        /**
+         * Class constructor.
+         *
+         * @param numPiles  The maximum number of piles.
+         * @param maxPileSize  The maximum size of a pile.
+         * @param seed  The seed.  Factories with the same parameters and seed produce the same positions.
+         */
+        public RotisserieFactory(int numPiles, int maxPileSize, long seed) {
+            this(numPiles, maxPileSize, new SplittableRandom(seed));
+        }
+        
+        private RotisserieFactory(int numPiles, int maxPileSize, SplittableRandom random) {
             this.numPiles = numPiles;
             this.maxPileSize = maxPileSize;
+            this.random = random;
         }
         
         //@override
-        public RotisserieNim getPosition() {
-            PureQueue<Integer> piles = new PureQueue<Integer>();
-            Random randomGenerator = new Random();
+        public synchronized RotisserieNim getPosition() {
+            return new RotisserieNim(randomPiles(this.random, this.numPiles, this.maxPileSize));
+        }
+        
+        /**
+         * Creates a factory with the same parameters and an independent stream of positions, for another thread.  Splitting
+         * a seeded factory the same way always gives the same factories.
+         *
+         * @return  A new factory.
+         */
+        public synchronized RotisserieFactory split() {
+            return new RotisserieFactory(this.numPiles, this.maxPileSize, this.random.split());
+        }
+        
+        /**
+         * Streams a batch of positions.  The stream is sequential; call parallel on it to build the positions on several
+         * threads.  Either way it contains the same positions in the same order.
+         *
+         * @param count  The number of positions.
+         * @return  A stream of count new positions.
+         */
+        public Stream<RotisserieNim> getPositions(long count) {
+            final long batchSeed = this.nextBatchSeed();
+            return LongStream.range(0, count).mapToObj(i -> new RotisserieNim(this.batchPiles(batchSeed, i)));
+        }
+        
+        /**
+         * Generates a batch of positions as arrays of pile sizes, on all available processors.
+         *
+         * @param count  The number of positions.
+         * @return  An array of count arrays of pile sizes, next pile first.  The same as getPositions would make, for a
+         *          factory in the same state.
+         */
+        public int[][] getPileSizes(int count) {
+            final long batchSeed = this.nextBatchSeed();
+            final int[][] batch = new int[count][];
+            IntStream.range(0, count).parallel().forEach(i -> batch[i] = this.batchPiles(batchSeed, i));
+            return batch;
+        }
+        
+        //draws the seed for a batch
+        private synchronized long nextBatchSeed() {
+            return this.random.nextLong();
+        }
+        
+        //the piles of position index of a batch
+        private int[] batchPiles(long batchSeed, long index) {
+            return randomPiles(new SplittableRandom(batchSeed + index * BATCH_GAMMA).split(), this.numPiles, this.maxPileSize);
+        }
+        
+        //numPiles piles of 0 to maxPileSize sticks, without the empty ones
+        private static int[] randomPiles(SplittableRandom random, int numPiles, int maxPileSize) {
+            int[] piles = new int[numPiles];
+            int numNonEmpty = 0;
             for (int i = 0; i < numPiles; i++) {
-                int pileSize = randomGenerator.nextInt(this.maxPileSize + 1);
+                int pileSize = random.nextInt(maxPileSize + 1);
                 if (pileSize > 0) {
-                    piles.add(new Integer(pileSize));
+                    piles[numNonEmpty++] = pileSize;
                 }
             }
-            return new RotisserieNim(piles);
+            return (numNonEmpty == numPiles) ? piles : Arrays.copyOf(piles, numNonEmpty);
         }
         
     } //end of RotisserieFactory
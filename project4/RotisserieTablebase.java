@@ -0,0 +1,358 @@
+/**
+ * A precomputed table of the nimber of every Rotisserie Nim position with at most maxPiles piles of at most maxPileSize
+ * sticks each.  That set of positions is closed under taking options, so the table is complete.
+ *
+ * The table lives in a flat binary file: a 16-byte header (magic number, version, maxPiles, maxPileSize), then one
+ * unsigned byte per position, indexed by rank.  Positions are ranked first by number of piles, then as base-maxPileSize
+ * numbers with the next pile as the most significant digit.  Queries read the file through a MappedByteBuffer, so opening
+ * a table costs an mmap call and nothing is loaded onto the heap.
+ *
+ * Tables are generated from the empty position up.  Every option has fewer sticks than its parent, so positions are
+ * processed one stick total at a time, and all positions with the same total are evaluated in parallel.
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class RotisserieTablebase {
+
+    //constants
+
+    //"RNTB"
+    private static final int MAGIC = 0x524E5442;
+
+    //file format version
+    private static final int VERSION = 1;
+
+    //bytes before the first entry
+    private static final int HEADER_SIZE = 16;
+
+    //instance variables
+
+    //the whole file
+    private ByteBuffer buffer;
+
+    //biggest number of piles covered
+    private int maxPiles;
+
+    //biggest pile covered
+    private int maxPileSize;
+
+    //powers[i] = maxPileSize^i
+    private long[] powers;
+
+    //offsets[n] = rank of the first position with n piles
+    private long[] offsets;
+
+    //private constructor
+    private RotisserieTablebase(ByteBuffer buffer, int maxPiles, int maxPileSize) {
+        this.buffer = buffer;
+        this.maxPiles = maxPiles;
+        this.maxPileSize = maxPileSize;
+        this.powers = new long[maxPiles + 1];
+        this.offsets = new long[maxPiles + 2];
+        this.powers[0] = 1;
+        for (int i = 1; i <= maxPiles; i++) {
+            this.powers[i] = this.powers[i - 1] * maxPileSize;
+        }
+        for (int i = 1; i <= maxPiles + 1; i++) {
+            this.offsets[i] = this.offsets[i - 1] + this.powers[i - 1];
+        }
+    }
+
+    //public methods
+
+    /**
+     * Opens a table written by generate.
+     *
+     * @param file  The table file.
+     * @return  The table, mapped read-only.
+     * @throws IOException  If the file can't be read or isn't a tablebase.
+     */
+    public static RotisserieTablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a Rotisserie Nim tablebase.");
+            }
+            RotisserieTablebase tablebase = new RotisserieTablebase(buffer, buffer.getInt(8), buffer.getInt(12));
+            if (channel.size() != HEADER_SIZE + tablebase.getNumPositions()) {
+                throw new IOException(file + " is truncated.");
+            }
+            return tablebase;
+        }
+    }
+
+    /**
+     * Generates a table and writes it to a file.
+     *
+     * @param file  Where to write the table.  Replaced if it exists.
+     * @param maxPiles  The biggest number of piles to cover.
+     * @param maxPileSize  The biggest pile to cover.  At most 255, so nimbers fit in a byte.
+     * @return  The new table, mapped read-only.
+     * @throws IOException  If the file can't be written.
+     */
+    public static RotisserieTablebase generate(Path file, int maxPiles, int maxPileSize) throws IOException {
+        if (maxPiles < 0 || maxPileSize < 1 || maxPileSize > 255) {
+            throw new IllegalArgumentException("Can't build a table of up to " + maxPiles + " piles of up to " + maxPileSize + ".");
+        }
+        RotisserieTablebase sizer = new RotisserieTablebase(null, maxPiles, maxPileSize);
+        long fileSize = HEADER_SIZE + sizer.getNumPositions();
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A table of up to " + maxPiles + " piles of up to " + maxPileSize + " needs " + fileSize + " bytes, which is more than one mapping can hold.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, maxPiles);
+            buffer.putInt(12, maxPileSize);
+            RotisserieTablebase builder = new RotisserieTablebase(buffer, maxPiles, maxPileSize);
+            builder.fill();
+            buffer.force();
+        }
+        return open(file);
+    }
+
+    /**
+     * Determines whether a position is in this table.
+     *
+     * @param position  A Rotisserie Nim position.
+     * @return  Whether position has at most maxPiles piles, none bigger than maxPileSize.
+     */
+    public boolean contains(RotisserieNim position) {
+        return this.contains(position.getPileSizes());
+    }
+
+    /**
+     * Looks up the nimber of a position.
+     *
+     * @param position  A position this contains.
+     * @return  The Sprague-Grundy value of position.
+     * @throws IllegalArgumentException  If position isn't in the table.
+     */
+    public int getNimber(RotisserieNim position) {
+        int[] piles = position.getPileSizes();
+        if (!this.contains(piles)) {
+            throw new IllegalArgumentException(position + " is not in this tablebase.");
+        }
+        return this.nimberAt(this.getRank(piles));
+    }
+
+    /**
+     * Determines whether the player to move wins.
+     *
+     * @param position  A position this contains.
+     * @return  Whether the nimber of position is not zero.
+     */
+    public boolean isNextPlayerWin(RotisserieNim position) {
+        return this.getNimber(position) != 0;
+    }
+
+    /**
+     * Ranks a sequence of piles.  Positions with fewer piles come first.
+     *
+     * @param piles  Pile sizes, next pile first, each between 1 and maxPileSize, with at most maxPiles of them.
+     * @return  The index of the position in the table.
+     */
+    public long getRank(int[] piles) {
+        long rank = 0;
+        for (int pileSize : piles) {
+            rank = rank * this.maxPileSize + (pileSize - 1);
+        }
+        return this.offsets[piles.length] + rank;
+    }
+
+    /**
+     * Returns the number of positions in the table.
+     *
+     * @return  The number of positions covered.
+     */
+    public long getNumPositions() {
+        return this.offsets[this.maxPiles + 1];
+    }
+
+    /**
+     * Returns the biggest number of piles covered.
+     *
+     * @return  maxPiles.
+     */
+    public int getMaxPiles() {
+        return this.maxPiles;
+    }
+
+    /**
+     * Returns the biggest pile covered.
+     *
+     * @return  maxPileSize.
+     */
+    public int getMaxPileSize() {
+        return this.maxPileSize;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  A String representation of this.
+     */
+    public String toString() {
+        return "A Rotisserie Nim tablebase of " + this.getNumPositions() + " positions: up to " + this.maxPiles + " piles of up to " + this.maxPileSize + ".";
+    }
+
+    /**
+     * Generates (or opens) a table, checks it against NimberCalculator and plays with it.
+     *
+     * @param args  Optional file name, maxPiles and maxPileSize.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "rotisserie.tb");
+        int maxPiles = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int maxPileSize = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        long start = System.nanoTime();
+        RotisserieTablebase tablebase;
+        if (Files.exists(file)) {
+            tablebase = RotisserieTablebase.open(file);
+            System.out.println("Opened " + tablebase + " in " + (System.nanoTime() - start) / 1000 + " microseconds.");
+        } else {
+            tablebase = RotisserieTablebase.generate(file, maxPiles, maxPileSize);
+            System.out.println("Generated " + tablebase + " in " + (System.nanoTime() - start) / 1000000 + " ms.");
+        }
+        //searching big positions takes a while, so only check small ones
+        NimberCalculator calculator = new NimberCalculator();
+        RotisserieNim.RotisserieFactory smallFactory = new RotisserieNim.RotisserieFactory(Math.min(4, tablebase.getMaxPiles()), tablebase.getMaxPileSize());
+        int mismatches = 0;
+        for (int i = 0; i < 1000; i++) {
+            RotisserieNim position = smallFactory.getPosition();
+            if (tablebase.getNimber(position) != calculator.getNimber(position)) {
+                mismatches++;
+            }
+        }
+        System.out.println("Mismatches with NimberCalculator in 1000 random positions: " + mismatches);
+        RotisserieNim.RotisserieFactory factory = new RotisserieNim.RotisserieFactory(tablebase.getMaxPiles(), tablebase.getMaxPileSize());
+        Referee<RotisserieNim> referee = new Referee<RotisserieNim>(new TablebasePlayer(tablebase), new RandomPlayer<RotisserieNim>(), factory);
+        referee.gauntlet(2000);
+    }
+
+    /* Private methods */
+
+    //whether piles is covered by this table
+    private boolean contains(int[] piles) {
+        if (piles.length > this.maxPiles) {
+            return false;
+        }
+        for (int pileSize : piles) {
+            if (pileSize > this.maxPileSize) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //reads the entry for a rank
+    private int nimberAt(long rank) {
+        return this.buffer.get(HEADER_SIZE + (int) rank) & 0xFF;
+    }
+
+    //computes every entry, one stick total at a time.  Positions with the same total never depend on each other.
+    private void fill() {
+        this.buffer.put(HEADER_SIZE, (byte) 0);
+        for (int totalSticks = 1; totalSticks <= this.maxPiles * this.maxPileSize; totalSticks++) {
+            final int total = totalSticks;
+            //one task per (number of piles, first pile) pair
+            IntStream.range(0, this.maxPiles * this.maxPileSize).parallel().forEach(task -> {
+                int numPiles = task / this.maxPileSize + 1;
+                int firstPile = task % this.maxPileSize + 1;
+                int restTotal = total - firstPile;
+                if (restTotal >= numPiles - 1 && restTotal <= (numPiles - 1) * this.maxPileSize) {
+                    boolean[] seen = new boolean[this.maxPileSize + 1];
+                    this.fillRest(firstPile, numPiles - 1, 0, restTotal, 0L, seen);
+                }
+            });
+        }
+    }
+
+    //enumerates every way to place the rest of the numRest piles after firstPile using exactly sticksLeft more sticks, and computes each entry
+    private void fillRest(int firstPile, int numRest, int numPlaced, int sticksLeft, long restRank, boolean[] seen) {
+        if (numPlaced == numRest) {
+            this.evaluate(firstPile, numRest, restRank, seen);
+            return;
+        }
+        int pilesLeftAfter = numRest - numPlaced - 1;
+        int smallest = Math.max(1, sticksLeft - pilesLeftAfter * this.maxPileSize);
+        int largest = Math.min(this.maxPileSize, sticksLeft - pilesLeftAfter);
+        for (int pileSize = smallest; pileSize <= largest; pileSize++) {
+            this.fillRest(firstPile, numRest, numPlaced + 1, sticksLeft - pileSize, restRank * this.maxPileSize + (pileSize - 1), seen);
+        }
+    }
+
+    //computes the nimber of firstPile followed by the numRest piles ranked restRank among positions with numRest piles
+    private void evaluate(int firstPile, int numRest, long restRank, boolean[] seen) {
+        Arrays.fill(seen, false);
+        //taking the whole pile
+        seen[this.nimberAt(this.offsets[numRest] + restRank)] = true;
+        //leaving k sticks on the end
+        long appendedBase = this.offsets[numRest + 1] + restRank * this.maxPileSize;
+        for (int k = 1; k < firstPile; k++) {
+            seen[this.nimberAt(appendedBase + (k - 1))] = true;
+        }
+        int mex = 0;
+        while (seen[mex]) {
+            mex++;
+        }
+        long rank = this.offsets[numRest + 1] + (firstPile - 1) * this.powers[numRest] + restRank;
+        this.buffer.put(HEADER_SIZE + (int) rank, (byte) mex);
+    }
+
+    /**
+     * A perfect Rotisserie Nim player that looks positions up in a tablebase.  Positions the table doesn't cover are
+     * passed on to a PerfectPlayer.
+     */
+    public static class TablebasePlayer extends Player<RotisserieNim> {
+
+        //the table
+        private RotisserieTablebase tablebase;
+
+        //for positions outside of the table
+        private PerfectPlayer<RotisserieNim> fallback = new PerfectPlayer<RotisserieNim>();
+
+        /**
+         * Class constructor.
+         *
+         * @param tablebase  The table to look positions up in.
+         */
+        public TablebasePlayer(RotisserieTablebase tablebase) {
+            this.tablebase = tablebase;
+        }
+
+        //@override
+        public RotisserieNim getMove(RotisserieNim position, int playerId) {
+            if (!this.tablebase.contains(position)) {
+                return this.fallback.getMove(position, playerId);
+            }
+            //a winning option if there is one, otherwise the last one, which leaves the most sticks to play
+            RotisserieNim bestOption = null;
+            for (CombinatorialGame option : position.getOptions(playerId)) {
+                RotisserieNim nimOption = (RotisserieNim) option;
+                if (this.tablebase.getNimber(nimOption) == 0) {
+                    return nimOption;
+                }
+                bestOption = nimOption;
+            }
+            if (bestOption == null) {
+                throw new NoSuchElementException("No moves of " + position + " exist for " + position.getPlayerName(playerId) + ".  Tried to call Player.getMove()!");
+            }
+            return bestOption;
+        }
+
+        //@override
+        public String toString() {
+            return "Tablebase Player";
+        }
+    }
+
+} //end of RotisserieTablebase
@@ -0,0 +1,264 @@
+/**
+ * Runs a round-robin tournament: every player plays every other player, once as Left and once as Right, for a fixed
+ * number of games each.
+ *
+ * Every pairing gets its own thread (a virtual thread when the JVM has them) and its own Referee, so a slow player only
+ * holds up its own pairings.  Results are added to a win/forfeit matrix and to Elo ratings as each game finishes.  Players
+ * appear in several pairings at once, so they must be safe to call from several threads.  A player that guards its state
+ * with a lock should use a java.util.concurrent.locks.Lock rather than synchronized, which pins a virtual thread to its
+ * carrier while it waits.  Set a move time limit so that a slow or hung player forfeits its games instead of holding up
+ * the end of the tournament.
+ */
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class Tournament<Game extends CombinatorialGame> {
+
+    //constants
+
+    //everyone's rating before their first game
+    private static final double INITIAL_RATING = 1500.0;
+
+    //how far one game moves a rating
+    private static final double K_FACTOR = 16.0;
+
+    //instance variables
+
+    //the entrants
+    private List<Player<Game>> players;
+
+    //generator of starting positions.  Shared by every pairing, so it must be thread safe.
+    private PositionFactory<Game> startStateGenerator;
+
+    //games played between each ordered pair
+    private int gamesPerPairing;
+
+    //milliseconds a player may take over one move before forfeiting, or 0 for no limit
+    private long moveTimeLimit;
+
+    //wins[i * n + j] = games player i won against player j
+    private AtomicIntegerArray wins;
+
+    //forfeits[i * n + j] = games player i forfeited against player j
+    private AtomicIntegerArray forfeits;
+
+    //current Elo ratings.  Guarded by this.
+    private double[] ratings;
+
+    //games finished so far.  Guarded by this.
+    private int gamesPlayed;
+
+    /**
+     * Class constructor.
+     *
+     * @param players  The entrants.
+     * @param startStateGenerator  Generator of starting positions.  Must be thread safe.
+     * @param gamesPerPairing  The number of games each player plays as Left against each other player.
+     */
+    public Tournament(List<? extends Player<Game>> players, PositionFactory<Game> startStateGenerator, int gamesPerPairing) {
+        this.players = new ArrayList<Player<Game>>(players);
+        this.startStateGenerator = startStateGenerator;
+        this.gamesPerPairing = gamesPerPairing;
+        int n = this.players.size();
+        this.wins = new AtomicIntegerArray(n * n);
+        this.forfeits = new AtomicIntegerArray(n * n);
+        this.ratings = new double[n];
+        Arrays.fill(this.ratings, INITIAL_RATING);
+    }
+
+    //public methods
+
+    /**
+     * Sets how long a player may take over a single move.  A player that takes longer forfeits the game, and isn't asked
+     * for another move until its late one returns.  Time spent waiting for a lock on a shared player counts.
+     *
+     * @param millis  The milliseconds allowed per move, or 0 for no limit.
+     */
+    public void setMoveTimeLimit(long millis) {
+        this.moveTimeLimit = millis;
+    }
+
+    /**
+     * Plays every pairing, and waits for them all to finish.
+     */
+    public void run() {
+        int n = this.players.size();
+        ExecutorService executor = newThreadPerTaskExecutor();
+        List<Future<?>> pairings = new ArrayList<Future<?>>();
+        for (int left = 0; left < n; left++) {
+            for (int right = 0; right < n; right++) {
+                if (left != right) {
+                    final int leftIndex = left;
+                    final int rightIndex = right;
+                    pairings.add(executor.submit(new Runnable() {
+                        public void run() {
+                            playPairing(leftIndex, rightIndex);
+                        }
+                    }));
+                }
+            }
+        }
+        try {
+            for (Future<?> pairing : pairings) {
+                pairing.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the tournament to finish.", ie);
+        } catch (ExecutionException ee) {
+            throw new RuntimeException("A pairing failed: " + ee.getCause(), ee.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the number of games one player won against another.
+     *
+     * @param winner  The index of the first player.
+     * @param loser  The index of the second player.
+     * @return  The number of games winner won against loser, in either role.
+     */
+    public int getWins(int winner, int loser) {
+        return this.wins.get(winner * this.players.size() + loser);
+    }
+
+    /**
+     * Gets the number of games one player forfeited against another.
+     *
+     * @param forfeiter  The index of the first player.
+     * @param opponent  The index of the second player.
+     * @return  The number of games forfeiter forfeited against opponent, in either role.
+     */
+    public int getForfeits(int forfeiter, int opponent) {
+        return this.forfeits.get(forfeiter * this.players.size() + opponent);
+    }
+
+    /**
+     * Gets a player's Elo rating.
+     *
+     * @param playerIndex  The index of the player.
+     * @return  The player's rating after the games finished so far.
+     */
+    public synchronized double getRating(int playerIndex) {
+        return this.ratings[playerIndex];
+    }
+
+    /**
+     * Returns the number of games finished.
+     *
+     * @return  The number of games played so far.
+     */
+    public synchronized int getGamesPlayed() {
+        return this.gamesPlayed;
+    }
+
+    /**
+     * Gets a String representation.
+     *
+     * @return  The standings: each player's rating, then the win matrix (row beat column) with forfeits in brackets.
+     */
+    public String toString() {
+        int n = this.players.size();
+        StringBuilder string = new StringBuilder("A tournament of " + n + " players, " + this.getGamesPlayed() + " games played.\n");
+        for (int i = 0; i < n; i++) {
+            string.append(String.format("%3d. %-30s %7.1f%n", i, this.players.get(i), this.getRating(i)));
+        }
+        string.append("     ");
+        for (int j = 0; j < n; j++) {
+            string.append(String.format("%12d", j));
+        }
+        for (int i = 0; i < n; i++) {
+            string.append(String.format("%n%3d. ", i));
+            for (int j = 0; j < n; j++) {
+                string.append((i == j) ? String.format("%12s", "-") : String.format("%12s", this.getWins(i, j) + " (" + this.getForfeits(i, j) + ")"));
+            }
+        }
+        return string.toString();
+    }
+
+    /**
+     * Runs a small Rotisserie Nim tournament.
+     */
+    public static void main(String[] args) {
+        List<Player<RotisserieNim>> players = new ArrayList<Player<RotisserieNim>>();
+        players.add(new RandomPlayer<RotisserieNim>());
+        players.add(new PerfectPlayer<RotisserieNim>() {
+            //PerfectPlayer's solver isn't thread safe, and this player is in several pairings at once.  A Lock, unlike
+            //synchronized, lets a waiting virtual thread give up its carrier.
+            private final ReentrantLock lock = new ReentrantLock();
+            public RotisserieNim getMove(RotisserieNim position, int playerId) {
+                this.lock.lock();
+                try {
+                    return super.getMove(position, playerId);
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        });
+        players.add(new RandomPlayer<RotisserieNim>());
+        Tournament<RotisserieNim> tournament = new Tournament<RotisserieNim>(players, new RotisserieNim.RotisserieFactory(6, 8), 200);
+        tournament.setMoveTimeLimit(1000);
+        long start = System.nanoTime();
+        tournament.run();
+        System.out.println(tournament);
+        System.out.println("Took " + (System.nanoTime() - start) / 1000000 + " ms.");
+    }
+
+    /* Private methods */
+
+    //plays every game with leftIndex as Left and rightIndex as Right
+    private void playPairing(int leftIndex, int rightIndex) {
+        Referee<Game> referee = new Referee<Game>(this.players.get(leftIndex), this.players.get(rightIndex), this.startStateGenerator);
+        referee.setPrint(false);
+        referee.setDelay(0);
+        if (this.moveTimeLimit > 0) {
+            referee.setMoveTimeLimit(this.moveTimeLimit);
+            referee.setTimeoutForfeits(true);
+        }
+        int[] indices = new int[] {leftIndex, rightIndex};
+        for (int gameIndex = 0; gameIndex < this.gamesPerPairing; gameIndex++) {
+            int forfeitsBefore = referee.getForfeits(0) + referee.getForfeits(1);
+            int winner = referee.playGame(gameIndex % 2);
+            int loser = 1 - winner;
+            boolean forfeited = referee.getForfeits(0) + referee.getForfeits(1) > forfeitsBefore;
+            this.recordGame(indices[winner], indices[loser], forfeited);
+        }
+    }
+
+    //adds one game's result to the matrix and the ratings
+    private void recordGame(int winner, int loser, boolean forfeited) {
+        int n = this.players.size();
+        this.wins.incrementAndGet(winner * n + loser);
+        if (forfeited) {
+            this.forfeits.incrementAndGet(loser * n + winner);
+        }
+        synchronized (this) {
+            double expectedWin = 1.0 / (1.0 + Math.pow(10.0, (this.ratings[loser] - this.ratings[winner]) / 400.0));
+            this.ratings[winner] += K_FACTOR * (1.0 - expectedWin);
+            this.ratings[loser] -= K_FACTOR * (1.0 - expectedWin);
+            this.gamesPlayed++;
+        }
+    }
+
+    //a virtual thread per task if this JVM has them (Java 21 and up), otherwise a platform thread per task
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException noVirtualThreads) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "Tournament pairing");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+} //end of Tournament
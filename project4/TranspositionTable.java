@@ -0,0 +1,84 @@
+/**
+ * A bounded cache from positions to search results.  Solvers and search players use these to avoid searching the same
+ * position twice.
+ *
+ * Entries are keyed on the position itself (through structuralHashCode and equals), and a table may drop any entry to make
+ * room for a new one, so a lookup can always miss.
+ */
+
+//import java.xxxxx.*;
+public interface TranspositionTable {
+
+    /**
+     * Value returned by get when the position is not in the table.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    //public methods
+
+    /**
+     * Looks up a position.
+     *
+     * @param position  The position to look up.
+     * @return  The value stored for position, or MISSING.
+     */
+    public long get(CombinatorialGame position);
+
+    /**
+     * Stores a value for a position, replacing any value it had.
+     *
+     * @param position  The position to store.  Positions must not change while they are in the table.
+     * @param value  The value to store.  Must not be MISSING.
+     */
+    public void put(CombinatorialGame position, long value);
+
+    /**
+     * Sets bits in the value stored for a position.  If the position isn't in the table, it is stored with just those bits.
+     *
+     * @param position  The position to store.
+     * @param bits  The bits to OR into the stored value.
+     * @return  The new value stored for position.
+     */
+    public long merge(CombinatorialGame position, long bits);
+
+    /**
+     * Removes every entry and resets the statistics.
+     */
+    public void clear();
+
+    /**
+     * Returns the number of entries this can hold.
+     *
+     * @return  The maximum number of entries.
+     */
+    public int getCapacity();
+
+    /**
+     * Returns the number of lookups so far.
+     *
+     * @return  The number of calls to get.
+     */
+    public long getProbes();
+
+    /**
+     * Returns the number of lookups that found their position.
+     *
+     * @return  The number of calls to get that didn't return MISSING.
+     */
+    public long getHits();
+
+    /**
+     * Returns the number of entries that were thrown out to make room for another position.
+     *
+     * @return  The number of replaced entries.
+     */
+    public long getOverwrites();
+
+    /**
+     * Returns the share of lookups that hit.
+     *
+     * @return  getHits() / getProbes(), or 0 before the first lookup.
+     */
+    public double getHitRate();
+
+} //end of TranspositionTable